@@ -0,0 +1,91 @@
+package com.humanoo.grocery.benchmark;
+
+import com.humanoo.grocery.GroceryManagementApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the application (without the web server) against a fresh in-memory H2
+ * database and bulk-loads a synthetic catalog of the requested size.
+ */
+final class CatalogDataset {
+
+    static final String[] CATEGORIES = {
+            "FRUITS", "VEGETABLES", "DAIRY", "MEAT", "GRAINS", "BEVERAGES", "SNACKS", "FROZEN", "HOUSEHOLD", "OTHER"
+    };
+
+    static final String[] WORDS = {
+            "apple", "banana", "carrot", "cheese", "bread", "rice", "pasta", "chicken", "salmon", "yogurt",
+            "orange", "tomato", "broccoli", "milk", "beef", "juice", "cereal", "butter", "coffee", "tea"
+    };
+
+    // ids above the seeded sample rows, which come from the grocery_seq sequence
+    private static final long FIRST_ID = 1_000_000L;
+    private static final int INSERT_BATCH = 5_000;
+
+    private CatalogDataset() {
+    }
+
+    /**
+     * @param properties extra application properties, e.g. to switch a feature on
+     */
+    static ConfigurableApplicationContext start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GroceryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+        load(context.getBean(JdbcTemplate.class), rows);
+        return context;
+    }
+
+    private static void load(JdbcTemplate jdbcTemplate, int rows) {
+        for (String category : CATEGORIES) {
+            jdbcTemplate.update("MERGE INTO categories (name) KEY (name) VALUES (?)", category);
+        }
+        Map<String, Integer> categoryIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories",
+                rs -> { categoryIds.put(rs.getString(2), rs.getInt(1)); });
+
+        String sql = "INSERT INTO groceries (id, name, description, price, quantity, category_id, unit, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < rows; i++) {
+            String word = WORDS[i % WORDS.length];
+            Timestamp updatedAt = Timestamp.valueOf(base.plusSeconds(i));
+            batch.add(new Object[] {
+                    FIRST_ID + i,
+                    word + " " + i,
+                    "Synthetic " + word + " number " + i,
+                    BigDecimal.valueOf(50 + (i * 37L) % 5000, 2),
+                    i % 120,
+                    categoryIds.get(CATEGORIES[i % CATEGORIES.length]),
+                    "LB",
+                    updatedAt,
+                    updatedAt
+            });
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
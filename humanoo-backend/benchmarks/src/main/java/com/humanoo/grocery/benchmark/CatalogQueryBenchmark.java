@@ -0,0 +1,96 @@
+package com.humanoo.grocery.benchmark;
+
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryPage;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import com.humanoo.grocery.service.GroceryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level search and filter paths against an H2 catalog of 1k to 1M rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CatalogQueryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private GroceryService groceryService;
+    private GroceryRepository groceryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogDataset.start(rows);
+        groceryService = context.getBean(GroceryService.class);
+        groceryRepository = context.getBean(GroceryRepository.class);
+        // the dataset was loaded behind the service's back
+        groceryService.rebuildIndexes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GroceryResponse> searchIndexed() {
+        return groceryService.searchGroceriesByName("banana 12");
+    }
+
+    // The LIKE '%x%' scan the index replaces
+    @Benchmark
+    public List<Grocery> searchDatabase() {
+        return groceryRepository.findByNameContainingIgnoreCase("banana 12");
+    }
+
+    @Benchmark
+    public List<GroceryResponse> filterCategoryAndPrice() {
+        return groceryService.filterGroceries("DAIRY", new BigDecimal("10.00"), new BigDecimal("20.00"));
+    }
+
+    @Benchmark
+    public List<GroceryResponse> filterPriceRange() {
+        return groceryService.getGroceriesByPriceRange(new BigDecimal("10.00"), new BigDecimal("10.50"));
+    }
+
+    // The indexed SQL query the price index replaces
+    @Benchmark
+    public List<GroceryResponse> filterPriceRangeDatabase() {
+        return groceryRepository.findMatching(GroceryFilterCriteria.builder()
+                .minPrice(new BigDecimal("10.00"))
+                .maxPrice(new BigDecimal("10.50"))
+                .build(), null, null);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> cheapestInCategory() {
+        return groceryService.filterGroceries(GroceryFilterCriteria.builder()
+                .categories(List.of("DAIRY"))
+                .sortBy("price")
+                .ascending(true)
+                .build(), null, 10).getContent();
+    }
+
+    @Benchmark
+    public GroceryPage filterCategoryFirstPage() {
+        return groceryService.getGroceriesByCategory("DAIRY", null, 50);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> lowStock() {
+        return groceryService.getLowStockGroceries(2);
+    }
+}
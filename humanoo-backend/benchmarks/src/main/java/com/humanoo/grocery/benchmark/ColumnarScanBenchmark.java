@@ -0,0 +1,113 @@
+package com.humanoo.grocery.benchmark;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.repository.GroceryRepository;
+import com.humanoo.grocery.service.GroceryColumnStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The column store's fork-join scans against the same queries on H2, with 1M and
+ * 10M rows. Both copies of the 10M catalog have to fit in the heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx24g")
+@State(Scope.Benchmark)
+public class ColumnarScanBenchmark {
+
+    // a top-N over a category, a price band and a stock bound
+    private static final GroceryFilterCriteria CHEAPEST_LOW_DAIRY = GroceryFilterCriteria.builder()
+            .categories(List.of("DAIRY"))
+            .minPrice(new BigDecimal("10.00"))
+            .maxPrice(new BigDecimal("40.00"))
+            .stockBelow(20)
+            .sortBy("price")
+            .ascending(true)
+            .build();
+
+    private static final GroceryFilterCriteria PRICE_RANGE = GroceryFilterCriteria.builder()
+            .minPrice(new BigDecimal("10.00"))
+            .maxPrice(new BigDecimal("10.50"))
+            .build();
+
+    private static final GroceryFilterCriteria LOW_STOCK = GroceryFilterCriteria.builder()
+            .stockBelow(2)
+            .build();
+
+    // touches most of the table
+    private static final GroceryFilterCriteria AGGREGATE = GroceryFilterCriteria.builder()
+            .maxPrice(new BigDecimal("40.00"))
+            .stockBelow(100)
+            .build();
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private GroceryColumnStore columnStore;
+    private GroceryRepository groceryRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogDataset.start(rows, "grocery.columnar.enabled=true");
+        columnStore = context.getBean(GroceryColumnStore.class);
+        groceryRepository = context.getBean(GroceryRepository.class);
+        // the dataset was loaded behind the store's back; only the columns are rebuilt,
+        // the other in-memory views are not part of this comparison
+        columnStore.rebuild(groceryRepository.findAllResponses());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<GroceryResponse> topNColumnar() {
+        return columnStore.filter(CHEAPEST_LOW_DAIRY, null, 50);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> topNDatabase() {
+        return groceryRepository.findMatching(CHEAPEST_LOW_DAIRY, null, 50);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> priceRangeColumnar() {
+        return columnStore.filter(PRICE_RANGE, null, null);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> priceRangeDatabase() {
+        return groceryRepository.findMatching(PRICE_RANGE, null, null);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> lowStockColumnar() {
+        return columnStore.filter(LOW_STOCK, null, null);
+    }
+
+    @Benchmark
+    public List<GroceryResponse> lowStockDatabase() {
+        return groceryRepository.findLowStockResponses(2);
+    }
+
+    @Benchmark
+    public List<CategoryStatsResponse> aggregateColumnar() {
+        return columnStore.aggregate(AGGREGATE);
+    }
+
+    @Benchmark
+    public List<CategoryStatsResponse> aggregateDatabase() {
+        return groceryRepository.aggregateMatching(AGGREGATE);
+    }
+}
@@ -0,0 +1,88 @@
+package com.humanoo.grocery.benchmark;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Full-catalog list reads: managed entities mapped to DTOs (the old read path) against
+ * the constructor-expression projection. Run with the GC profiler to compare
+ * allocation per call:
+ * <pre>../mvnw package exec:exec -Djmh.args="ReadProjectionBenchmark -prof gc"</pre>
+ * and read the gc.alloc.rate.norm rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReadProjectionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private GroceryRepository groceryRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = CatalogDataset.start(rows);
+        groceryRepository = context.getBean(GroceryRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Entities with dirty-checking snapshots, then copied field by field
+    @Benchmark
+    public List<GroceryResponse> entitiesMapped() {
+        return readWrite.execute(status -> mapAll(groceryRepository.findAllByOrderByUpdatedAtDesc()));
+    }
+
+    // Same, but Hibernate skips the snapshots in a read-only transaction
+    @Benchmark
+    public List<GroceryResponse> entitiesMappedReadOnly() {
+        return readOnly.execute(status -> mapAll(groceryRepository.findAllByOrderByUpdatedAtDesc()));
+    }
+
+    // What GroceryService.getAllGroceries does now
+    @Benchmark
+    public List<GroceryResponse> projection() {
+        return readOnly.execute(status -> groceryRepository.findAllResponses());
+    }
+
+    private static List<GroceryResponse> mapAll(List<Grocery> groceries) {
+        return groceries.stream()
+                .map(grocery -> GroceryResponse.builder()
+                        .id(grocery.getId())
+                        .name(grocery.getName())
+                        .description(grocery.getDescription())
+                        .price(grocery.getPrice())
+                        .quantity(grocery.getQuantity())
+                        .reorderThreshold(grocery.getReorderThreshold())
+                        .category(grocery.getCategory())
+                        .unit(grocery.getUnit())
+                        .createdAt(grocery.getCreatedAt())
+                        .updatedAt(grocery.getUpdatedAt())
+                        .version(grocery.getVersion())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.humanoo.grocery.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanoo.grocery.config.GroceryColumnarHttpMessageConverter;
+import com.humanoo.grocery.dto.GroceryResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Jackson serialization of list responses, configured like the application's
+ * ObjectMapper (ISO dates, no timestamps), in each encoding the list endpoints
+ * negotiate: JSON, CBOR, Smile and columnar JSON, plus gzipped JSON and columnar
+ * JSON as the server compression would send them. Each benchmark also reports the size of its
+ * payload as the {@code payloadBytes} secondary result, next to the time in the
+ * JSON results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private GroceryColumnarHttpMessageConverter columnarConverter;
+    private List<GroceryResponse> groceries;
+
+    /** Set, not summed, on every call, so JMH reports the payload size of one call. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        columnarConverter = new GroceryColumnarHttpMessageConverter(objectMapper);
+        groceries = new ArrayList<>(size);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            groceries.add(GroceryResponse.builder()
+                    .id((long) i)
+                    .name("Item " + i)
+                    .description("Description of item " + i)
+                    .price(BigDecimal.valueOf(100 + i % 5000, 2))
+                    .quantity(i % 100)
+                    .category(CatalogDataset.CATEGORIES[i % CatalogDataset.CATEGORIES.length])
+                    .unit("LB")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .version(0L)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList(PayloadSize payload) throws JsonProcessingException {
+        return measured(objectMapper.writeValueAsBytes(groceries), payload);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor(PayloadSize payload) throws JsonProcessingException {
+        return measured(cborMapper.writeValueAsBytes(groceries), payload);
+    }
+
+    @Benchmark
+    public byte[] serializeSmile(PayloadSize payload) throws JsonProcessingException {
+        return measured(smileMapper.writeValueAsBytes(groceries), payload);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnar(PayloadSize payload) throws IOException {
+        return measured(columnar(), payload);
+    }
+
+    // Serialization plus the gzip CPU the server pays with server.compression enabled
+    @Benchmark
+    public byte[] serializeJsonGzip(PayloadSize payload) throws IOException {
+        return measured(gzip(objectMapper.writeValueAsBytes(groceries)), payload);
+    }
+
+    @Benchmark
+    public byte[] serializeColumnarGzip(PayloadSize payload) throws IOException {
+        return measured(gzip(columnar()), payload);
+    }
+
+    private byte[] columnar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        columnarConverter.write(groceries, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] measured(byte[] body, PayloadSize payload) {
+        payload.payloadBytes = body.length;
+        return body;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
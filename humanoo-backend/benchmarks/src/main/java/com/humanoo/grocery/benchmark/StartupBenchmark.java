@@ -0,0 +1,127 @@
+package com.humanoo.grocery.benchmark;
+
+import com.humanoo.grocery.GroceryManagementApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the application in the prod profile (file-backed H2, Flyway)
+ * to its first served request, against a catalog of 1k and 1M rows:
+ * <ul>
+ *   <li>{@code coldStartWithFixture}: empty data directory, the fixture CSV is bulk-loaded
+ *       by DataSeeder during startup;</li>
+ *   <li>{@code warmRestart}: the database already holds the catalog, as after a redeploy.</li>
+ * </ul>
+ * Each invocation is one full start, so this runs in single-shot mode.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int rows;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Path workDir;
+    private Path fixture;
+    private Path warmDataDir;
+    private Path coldDataDir;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("grocery-startup");
+        fixture = workDir.resolve("groceries.csv");
+        writeFixture(fixture, rows);
+
+        // seed the warm database once, then only restart against it
+        warmDataDir = workDir.resolve("warm");
+        start(warmDataDir).close();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareColdDirectory() throws IOException {
+        coldDataDir = workDir.resolve("cold");
+        FileSystemUtils.deleteRecursively(coldDataDir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public int coldStartWithFixture() throws Exception {
+        context = start(coldDataDir);
+        return firstRequest();
+    }
+
+    @Benchmark
+    public int warmRestart() throws Exception {
+        context = start(warmDataDir);
+        return firstRequest();
+    }
+
+    private ConfigurableApplicationContext start(Path dataDir) {
+        return new SpringApplicationBuilder(GroceryManagementApplication.class)
+                .profiles("prod")
+                .properties(
+                        "grocery.data-dir=" + dataDir.toAbsolutePath(),
+                        "grocery.seed.fixture=" + fixture.toAbsolutePath(),
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private int firstRequest() throws Exception {
+        String port = context.getEnvironment().getProperty("local.server.port");
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/groceries?limit=1")).build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("First request failed with " + response.statusCode());
+        }
+        return response.body().length();
+    }
+
+    private static void writeFixture(Path file, int rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("name,description,price,quantity,category,unit\n");
+            for (int i = 0; i < rows; i++) {
+                String word = CatalogDataset.WORDS[i % CatalogDataset.WORDS.length];
+                writer.write(word + " " + i + ",Synthetic " + word + ","
+                        + String.format(Locale.ROOT, "%.2f", 0.5 + (i % 5000) / 100.0) + ","
+                        + (i % 200) + ","
+                        + CatalogDataset.CATEGORIES[i % CatalogDataset.CATEGORIES.length] + ",PIECE\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.model.Grocery;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping. Lives in the service package because
+ * GroceryService.mapToResponse is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private GroceryService groceryService;
+    private Grocery grocery;
+
+    @Setup
+    public void setUp() {
+        // mapToResponse touches none of the collaborators
+        groceryService = new GroceryService(null, null, null, null, null, null, null, null, null);
+        grocery = Grocery.builder()
+                .id(42L)
+                .name("Bananas")
+                .description("Fresh yellow bananas")
+                .price(new BigDecimal("2.99"))
+                .quantity(50)
+                .category("FRUITS")
+                .unit("LB")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .version(3L)
+                .build();
+    }
+
+    @Benchmark
+    public GroceryResponse mapToResponse() {
+        return groceryService.mapToResponse(grocery);
+    }
+
+    // The Lombok builder path, as used by mapToResponse
+    @Benchmark
+    public GroceryResponse lombokBuilder() {
+        return GroceryResponse.builder()
+                .id(grocery.getId())
+                .name(grocery.getName())
+                .description(grocery.getDescription())
+                .price(grocery.getPrice())
+                .quantity(grocery.getQuantity())
+                .reorderThreshold(grocery.getReorderThreshold())
+                .category(grocery.getCategory())
+                .unit(grocery.getUnit())
+                .createdAt(grocery.getCreatedAt())
+                .updatedAt(grocery.getUpdatedAt())
+                .version(grocery.getVersion())
+                .build();
+    }
+
+    // Baseline for the builder: all-args constructor, no intermediate builder object
+    @Benchmark
+    public GroceryResponse allArgsConstructor() {
+        return new GroceryResponse(grocery.getId(), grocery.getName(), grocery.getDescription(), grocery.getPrice(),
+                grocery.getQuantity(), grocery.getReorderThreshold(), grocery.getCategory(), grocery.getUnit(),
+                grocery.getCreatedAt(), grocery.getUpdatedAt(), grocery.getVersion());
+    }
+}
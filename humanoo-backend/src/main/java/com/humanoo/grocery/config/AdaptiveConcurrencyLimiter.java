@@ -0,0 +1,108 @@
+package com.humanoo.grocery.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Global cap on API requests in flight, adjusted from repository call latency
+ * (additive increase, multiplicative decrease).
+ *
+ * <p>Every repository call under the latency target raises the limit by
+ * {@code 1/limit}, which is roughly +1 per limit's worth of fast calls. A call
+ * over the target cuts it by 10%, at most once per target interval, so a burst
+ * of slow calls counts as one signal. The limit stays between
+ * {@code minLimit} and {@code maxLimit}. All updates are CAS loops, because
+ * every repository call feeds the limiter.
+ */
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final LongSupplier clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // the limit as double bits, so fractional increases add up
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration latencyTarget) {
+        this(minLimit, maxLimit, latencyTarget, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration latencyTarget, LongSupplier clock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits need 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = latencyTarget.toNanos();
+        this.clock = clock;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(maxLimit));
+        this.lastDecrease = new AtomicLong(clock.getAsLong() - targetNanos);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void onLatency(long latencyNanos) {
+        if (latencyNanos <= targetNanos) {
+            update(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+            return;
+        }
+        long now = clock.getAsLong();
+        long last = lastDecrease.get();
+        if (now - last >= targetNanos && lastDecrease.compareAndSet(last, now)) {
+            update(limit -> Math.max(minLimit, limit * BACKOFF));
+        }
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("grocery.admission.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("grocery.admission.in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Admitted API requests still running")
+                .register(registry);
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        long bits;
+        long updated;
+        do {
+            bits = limitBits.get();
+            updated = Double.doubleToLongBits(change.applyAsDouble(Double.longBitsToDouble(bits)));
+        } while (bits != updated && !limitBits.compareAndSet(bits, updated));
+    }
+}
@@ -0,0 +1,109 @@
+package com.humanoo.grocery.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wires {@link AdmissionControlInterceptor} in front of /api/groceries/** from the
+ * {@code grocery.rate-limit.*} and {@code grocery.admission.*} properties.
+ */
+@Configuration
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final boolean rateLimitEnabled;
+    private final String clientHeader;
+    private final List<String> scanPaths;
+    private final ClientRateLimiter clientRateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    public AdmissionControlConfig(@Value("${grocery.rate-limit.enabled:false}") boolean rateLimitEnabled,
+            @Value("${grocery.rate-limit.client-header:}") String clientHeader,
+            @Value("${grocery.rate-limit.read.capacity:200}") int readCapacity,
+            @Value("${grocery.rate-limit.read.per-second:100}") double readPerSecond,
+            @Value("${grocery.rate-limit.scan.capacity:20}") int scanCapacity,
+            @Value("${grocery.rate-limit.scan.per-second:5}") double scanPerSecond,
+            @Value("${grocery.rate-limit.write.capacity:50}") int writeCapacity,
+            @Value("${grocery.rate-limit.write.per-second:20}") double writePerSecond,
+            @Value("${grocery.rate-limit.scan-paths:/api/groceries/search,/api/groceries/filter,"
+                    + "/api/groceries/price-range,/api/groceries/category/**,/api/groceries/low-stock,"
+                    + "/api/groceries/export,/api/groceries/*/history}")
+            List<String> scanPaths,
+            @Value("${grocery.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${grocery.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${grocery.admission.min-concurrency:10}") int minConcurrency,
+            @Value("${grocery.admission.max-concurrency:200}") int maxConcurrency,
+            @Value("${grocery.admission.latency-target:100ms}") Duration latencyTarget,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.clientHeader = clientHeader;
+        this.scanPaths = scanPaths;
+        this.clientRateLimiter = new ClientRateLimiter(Map.of(
+                ClientRateLimiter.Tier.READ, new ClientRateLimiter.Limit(readCapacity, readPerSecond),
+                ClientRateLimiter.Tier.SCAN, new ClientRateLimiter.Limit(scanCapacity, scanPerSecond),
+                ClientRateLimiter.Tier.WRITE, new ClientRateLimiter.Limit(writeCapacity, writePerSecond)),
+                idleTimeout, maxClients);
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(minConcurrency, maxConcurrency, latencyTarget);
+        this.meterRegistry = meterRegistry;
+    }
+
+    // A bean so its gauges are bound and the repository advice below can find it
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    // Feeds the time of every repository call to the limiter, through the same hook
+    // as MetricsConfig. Static because it is a post-processor.
+    @Bean
+    public static BeanPostProcessor repositoryLatencyPostProcessor(
+            ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    (MethodInterceptor) invocation -> {
+                                        long started = System.nanoTime();
+                                        try {
+                                            return invocation.proceed();
+                                        } finally {
+                                            AdaptiveConcurrencyLimiter limiter = concurrencyLimiter.getIfAvailable();
+                                            if (limiter != null) {
+                                                limiter.onLatency(System.nanoTime() - started);
+                                            }
+                                        }
+                                    })));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // The concurrency limit is always on; per-client buckets are opt-in, since keyed by
+    // address they would put every client behind one proxy or NAT in the same bucket.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // ahead of the ETag check, so a flood of conditional requests is limited too
+        registry.addInterceptor(new AdmissionControlInterceptor(rateLimitEnabled ? clientRateLimiter : null,
+                        clientHeader, concurrencyLimiter, scanPaths, meterRegistry::getIfAvailable))
+                .addPathPatterns("/api/groceries", "/api/groceries/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
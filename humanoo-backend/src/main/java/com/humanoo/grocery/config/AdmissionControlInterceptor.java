@@ -0,0 +1,144 @@
+package com.humanoo.grocery.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Admission control in front of the grocery API. When per-client rate limiting is
+ * on, a request first needs a token from its client's bucket for the endpoint
+ * tier, which answers 429 otherwise. It then needs a slot under the global
+ * adaptive concurrency limit, which answers 503 otherwise.
+ *
+ * <p>Clients are identified by the value of {@code clientHeader} when one is
+ * configured and present, which must then be set by a gateway the client cannot
+ * bypass, and by remote address otherwise. {@code server.forward-headers-strategy}
+ * makes that the real client behind a trusted proxy; clients behind one NAT still
+ * share a bucket. Async
+ * requests (the export and the SSE feed) give their slot back once the handler
+ * returns, so a long-lived stream does not hold one.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String REJECTED_METRIC = "grocery.admission.rejected";
+
+    private static final String PERMIT = AdmissionControlInterceptor.class.getName() + ".PERMIT";
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+    // without cursor or limit this returns the whole catalog
+    private static final String LIST_PATH = "/api/groceries";
+
+    // null when per-client rate limiting is off
+    private final ClientRateLimiter rateLimiter;
+    private final String clientHeader;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final List<String> scanPaths;
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * @param rateLimiter  per-client buckets, or null to apply only the concurrency limit
+     * @param clientHeader request header that identifies the client, or null for the remote address
+     */
+    public AdmissionControlInterceptor(ClientRateLimiter rateLimiter, String clientHeader,
+            AdaptiveConcurrencyLimiter concurrencyLimiter, List<String> scanPaths,
+            Supplier<MeterRegistry> meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.scanPaths = List.copyOf(scanPaths);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the dispatch that completes an async request was already admitted
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        ClientRateLimiter.Tier tier = tierOf(request);
+        long waitNanos = rateLimiter != null ? rateLimiter.tryAcquire(clientOf(request), tier) : 0;
+        if (waitNanos > 0) {
+            countRejection("rate-limit", tier);
+            throw new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS, toRetryAfterSeconds(waitNanos),
+                    "Rate limit exceeded for " + tier.name().toLowerCase() + " requests");
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            countRejection("overload", tier);
+            throw new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE, OVERLOAD_RETRY_AFTER_SECONDS,
+                    "Server is busy, retry shortly");
+        }
+        request.setAttribute(PERMIT, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        release(request);
+    }
+
+    ClientRateLimiter.Tier tierOf(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return ClientRateLimiter.Tier.WRITE;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : scanPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return ClientRateLimiter.Tier.SCAN;
+            }
+        }
+        if (LIST_PATH.equals(path) && request.getParameter("cursor") == null
+                && request.getParameter("limit") == null) {
+            return ClientRateLimiter.Tier.SCAN;
+        }
+        return ClientRateLimiter.Tier.READ;
+    }
+
+    String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT) != null) {
+            request.removeAttribute(PERMIT);
+            concurrencyLimiter.release();
+        }
+    }
+
+    private void countRejection(String reason, ClientRateLimiter.Tier tier) {
+        MeterRegistry registry = meterRegistry.get();
+        if (registry != null) {
+            Counter.builder(REJECTED_METRIC)
+                    .tag("reason", reason)
+                    .tag("tier", tier.name().toLowerCase())
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
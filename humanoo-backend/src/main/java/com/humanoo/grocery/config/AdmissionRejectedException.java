@@ -0,0 +1,22 @@
+package com.humanoo.grocery.config;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown by {@link AdmissionControlInterceptor} before the handler runs: 429 when a
+ * client is over its rate limit, 503 when the server is shedding load. Both come
+ * with a Retry-After.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(HttpStatus status, long retryAfterSeconds, String message) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,74 @@
+package com.humanoo.grocery.config;
+
+import com.humanoo.grocery.service.GroceryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditional GET for the list endpoints. The catalog version is checked before the
+ * handler runs, so a matching If-None-Match is answered with 304 without touching
+ * the database or the JSON serializer. Otherwise the ETag is added to the response.
+ * JSON, CBOR, Smile and columnar bodies of the same catalog version get different
+ * tags, and the response varies on Accept.
+ */
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private static final Map<String, String> VARIANTS = Map.of(
+            MediaType.APPLICATION_CBOR_VALUE, "cbor",
+            "application/x-jackson-smile", "smile",
+            GroceryColumnarHttpMessageConverter.COLUMNAR_JSON_VALUE, "columnar");
+
+    private final GroceryService groceryService;
+
+    public CatalogETagInterceptor(GroceryService groceryService) {
+        this.groceryService = groceryService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        String eTag = groceryService.getCatalogETag();
+        if (eTag == null) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        eTag = forRepresentation(eTag, request.getHeader(HttpHeaders.ACCEPT));
+        // sets 304 when the tag matches, and the ETag header either way
+        return !new ServletWebRequest(request, response).checkNotModified(eTag);
+    }
+
+    // Suffix for the client's preferred media type when that is a compact encoding;
+    // plain JSON and wildcards keep the bare tag.
+    static String forRepresentation(String eTag, String accept) {
+        if (accept == null || accept.isBlank()) {
+            return eTag;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return eTag;
+        }
+        if (accepted.isEmpty()) {
+            return eTag;
+        }
+        // stable, so equal q-values keep the header order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        MediaType preferred = accepted.get(0);
+        String variant = VARIANTS.get(preferred.getType() + "/" + preferred.getSubtype());
+        return variant == null ? eTag : eTag.substring(0, eTag.length() - 1) + "-" + variant + "\"";
+    }
+}
@@ -0,0 +1,98 @@
+package com.humanoo.grocery.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, one per client and endpoint {@link Tier}.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} in GCRA form: the time at which the
+ * bucket would be full again. Taking a token is one CAS, so the request path takes
+ * no lock. Buckets live in a Caffeine map, which is lock-striped, and are evicted
+ * once a client has been idle for {@code idleTimeout}. An evicted client simply
+ * starts again with a full bucket.
+ */
+public class ClientRateLimiter {
+
+    public enum Tier {
+        // single items and other answers from memory
+        READ,
+        // list, search and filter queries that can walk many rows
+        SCAN,
+        // anything that is not GET or HEAD
+        WRITE
+    }
+
+    private final Map<Tier, Limit> limits;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    public ClientRateLimiter(Map<Tier, Limit> limits, Duration idleTimeout, long maxClients) {
+        this(limits, idleTimeout, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(Map<Tier, Limit> limits, Duration idleTimeout, long maxClients, LongSupplier clock) {
+        this.limits = new EnumMap<>(limits);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maxClients)
+                .build();
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token from the client's bucket for {@code tier}.
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is free
+     */
+    public long tryAcquire(String client, Tier tier) {
+        Limit limit = limits.get(tier);
+        // Long.MIN_VALUE: never used, so the bucket starts full
+        AtomicLong fullAt = buckets.get(tier.name() + ':' + client, key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + limit.intervalNanos();
+            long overdraft = next - now - limit.burstNanos();
+            if (overdraft > 0) {
+                return overdraft;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long clientCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * @param capacity  requests a client may make back to back
+     * @param perSecond sustained requests per second
+     */
+    public record Limit(int capacity, double perSecond) {
+
+        public Limit {
+            if (capacity < 1 || perSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit needs a capacity >= 1 and a positive rate");
+            }
+        }
+
+        long intervalNanos() {
+            return (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+        }
+
+        long burstNanos() {
+            return capacity * intervalNanos();
+        }
+    }
+}
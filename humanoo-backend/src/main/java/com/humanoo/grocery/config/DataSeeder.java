@@ -2,67 +2,144 @@ package com.humanoo.grocery.config;
 
 import com.humanoo.grocery.model.Grocery;
 import com.humanoo.grocery.repository.GroceryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Seeds the catalog on startup. Both steps are idempotent, so restarting against
+ * the file-backed database of the prod profile inserts nothing new:
+ * <ul>
+ *   <li>the sample groceries are saved in one batched saveAll, skipping names that exist;</li>
+ *   <li>{@code grocery.seed.fixture} names an optional CSV file (header
+ *       {@code name,description,price,quantity,category,unit}) that is loaded with a
+ *       single INSERT ... SELECT FROM CSVREAD, after a MERGE that adds its new categories
+ *       to the categories table. Names are compared case-insensitively: rows whose name
+ *       is present are skipped, and of rows repeating a name within the file only the
+ *       first is loaded.</li>
+ * </ul>
+ */
 @Component
 public class DataSeeder implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataSeeder.class);
+
+    // H2 resolves CSVREAD's columns while preparing, so the file name is inlined.
+    // Categories go in first, so the insert can join every row to its category id.
+    // name_key is the indexed LOWER(name) column (V6 migration).
+    private static final String FIXTURE_CATEGORIES = "MERGE INTO categories (name) KEY (name) "
+            + "SELECT DISTINCT f.category FROM CSVREAD('%s', NULL, 'charset=UTF-8') f";
+    private static final String FIXTURE_INSERT = "INSERT INTO groceries "
+            + "(id, name, description, price, quantity, category_id, unit, created_at, updated_at, version) "
+            + "SELECT NEXT VALUE FOR grocery_seq, f.name, f.description, CAST(f.price AS NUMERIC(10, 2)), "
+            + "CAST(f.quantity AS INTEGER), c.id, f.unit, LOCALTIMESTAMP, LOCALTIMESTAMP, 0 "
+            + "FROM (SELECT r.*, ROW_NUMBER() OVER (PARTITION BY LOWER(r.name) ORDER BY r.line) AS occurrence "
+            + "FROM (SELECT ROWNUM() AS line, csv.* FROM CSVREAD('%s', NULL, 'charset=UTF-8') csv) r) f "
+            + "JOIN categories c ON c.name = f.category "
+            + "WHERE f.occurrence = 1 AND NOT EXISTS (SELECT 1 FROM groceries g WHERE g.name_key = LOWER(f.name))";
+
     private final GroceryRepository groceryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean sampleData;
+    private final String fixture;
 
     @Autowired
-    public DataSeeder(GroceryRepository groceryRepository) {
+    public DataSeeder(GroceryRepository groceryRepository, JdbcTemplate jdbcTemplate,
+            @Value("${grocery.seed.sample-data:true}") boolean sampleData,
+            @Value("${grocery.seed.fixture:}") String fixture) {
         this.groceryRepository = groceryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.sampleData = sampleData;
+        this.fixture = fixture;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        if (groceryRepository.count() == 0) {
+        if (sampleData) {
             seedGroceries();
         }
+        if (StringUtils.hasText(fixture)) {
+            loadFixture(Path.of(fixture));
+        }
     }
 
     private void seedGroceries() {
-        // we use Builder pattern to create Grocery objects. (just wanted to show you
-        // how we use a design pattern)
-        groceryRepository.save(Grocery.builder().name("Bananas").description("Fresh yellow bananas")
-                .price(new BigDecimal("2.99")).quantity(50).category("FRUITS").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Apples").description("Red delicious apples")
-                .price(new BigDecimal("3.49")).quantity(30).category("FRUITS").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Oranges").description("Juicy navel oranges")
-                .price(new BigDecimal("4.99")).quantity(25).category("FRUITS").unit("LB").build());
-
-        groceryRepository.save(Grocery.builder().name("Carrots").description("Fresh organic carrots")
-                .price(new BigDecimal("1.99")).quantity(40).category("VEGETABLES").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Broccoli").description("Fresh green broccoli")
-                .price(new BigDecimal("2.49")).quantity(20).category("VEGETABLES").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Tomatoes").description("Roma tomatoes")
-                .price(new BigDecimal("3.99")).quantity(35).category("VEGETABLES").unit("LB").build());
-
-        groceryRepository.save(Grocery.builder().name("Milk").description("Whole milk 1 gallon")
-                .price(new BigDecimal("3.99")).quantity(15).category("DAIRY").unit("GALLON").build());
-        groceryRepository.save(Grocery.builder().name("Cheese").description("Cheddar cheese block")
-                .price(new BigDecimal("5.99")).quantity(12).category("DAIRY").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Yogurt").description("Greek yogurt")
-                .price(new BigDecimal("1.99")).quantity(25).category("DAIRY").unit("CONTAINER").build());
-
-        groceryRepository.save(Grocery.builder().name("Bread").description("Whole wheat bread")
-                .price(new BigDecimal("2.99")).quantity(20).category("GRAINS").unit("LOAF").build());
-        groceryRepository.save(Grocery.builder().name("Rice").description("Jasmine rice").price(new BigDecimal("4.99"))
-                .quantity(10).category("GRAINS").unit("BAG").build());
-        groceryRepository.save(Grocery.builder().name("Pasta").description("Spaghetti pasta")
-                .price(new BigDecimal("1.49")).quantity(30).category("GRAINS").unit("BOX").build());
-
-        groceryRepository.save(Grocery.builder().name("Chicken Breast").description("Boneless chicken breast")
-                .price(new BigDecimal("7.99")).quantity(8).category("MEAT").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Ground Beef").description("85% lean ground beef")
-                .price(new BigDecimal("6.99")).quantity(10).category("MEAT").unit("LB").build());
-        groceryRepository.save(Grocery.builder().name("Salmon").description("Fresh Atlantic salmon")
-                .price(new BigDecimal("12.99")).quantity(5).category("MEAT").unit("LB").build());
-
-        System.out.println("Seeded grocery database with initial data");
+        List<Grocery> samples = List.of(
+            // we use Builder pattern to create Grocery objects. (just wanted to show you
+            // how we use a design pattern)
+            Grocery.builder().name("Bananas").description("Fresh yellow bananas")
+                    .price(new BigDecimal("2.99")).quantity(50).category("FRUITS").unit("LB").build(),
+            Grocery.builder().name("Apples").description("Red delicious apples")
+                    .price(new BigDecimal("3.49")).quantity(30).category("FRUITS").unit("LB").build(),
+            Grocery.builder().name("Oranges").description("Juicy navel oranges")
+                    .price(new BigDecimal("4.99")).quantity(25).category("FRUITS").unit("LB").build(),
+
+            Grocery.builder().name("Carrots").description("Fresh organic carrots")
+                    .price(new BigDecimal("1.99")).quantity(40).category("VEGETABLES").unit("LB").build(),
+            Grocery.builder().name("Broccoli").description("Fresh green broccoli")
+                    .price(new BigDecimal("2.49")).quantity(20).category("VEGETABLES").unit("LB").build(),
+            Grocery.builder().name("Tomatoes").description("Roma tomatoes")
+                    .price(new BigDecimal("3.99")).quantity(35).category("VEGETABLES").unit("LB").build(),
+
+            Grocery.builder().name("Milk").description("Whole milk 1 gallon")
+                    .price(new BigDecimal("3.99")).quantity(15).category("DAIRY").unit("GALLON").build(),
+            Grocery.builder().name("Cheese").description("Cheddar cheese block")
+                    .price(new BigDecimal("5.99")).quantity(12).category("DAIRY").unit("LB").build(),
+            Grocery.builder().name("Yogurt").description("Greek yogurt")
+                    .price(new BigDecimal("1.99")).quantity(25).category("DAIRY").unit("CONTAINER").build(),
+
+            Grocery.builder().name("Bread").description("Whole wheat bread")
+                    .price(new BigDecimal("2.99")).quantity(20).category("GRAINS").unit("LOAF").build(),
+            Grocery.builder().name("Rice").description("Jasmine rice").price(new BigDecimal("4.99"))
+                    .quantity(10).category("GRAINS").unit("BAG").build(),
+            Grocery.builder().name("Pasta").description("Spaghetti pasta")
+                    .price(new BigDecimal("1.49")).quantity(30).category("GRAINS").unit("BOX").build(),
+
+            Grocery.builder().name("Chicken Breast").description("Boneless chicken breast")
+                    .price(new BigDecimal("7.99")).quantity(8).category("MEAT").unit("LB").build(),
+            Grocery.builder().name("Ground Beef").description("85% lean ground beef")
+                    .price(new BigDecimal("6.99")).quantity(10).category("MEAT").unit("LB").build(),
+            Grocery.builder().name("Salmon").description("Fresh Atlantic salmon")
+                    .price(new BigDecimal("12.99")).quantity(5).category("MEAT").unit("LB").build()
+        );
+
+        Set<String> existing = new HashSet<>(groceryRepository.findExistingLowerCaseNames(samples.stream()
+                .map(grocery -> grocery.getName().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList())));
+        List<Grocery> missing = samples.stream()
+                .filter(grocery -> !existing.contains(grocery.getName().toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        // one transaction, inserts JDBC-batched (hibernate.jdbc.batch_size)
+        groceryRepository.saveAll(missing);
+        log.info("Seeded grocery database with {} sample items", missing.size());
+    }
+
+    private void loadFixture(Path path) {
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("Seed fixture not readable: " + path);
+        }
+        long started = System.nanoTime();
+        String file = path.toAbsolutePath().toString().replace("'", "''");
+        jdbcTemplate.update(String.format(FIXTURE_CATEGORIES, file));
+        int inserted = jdbcTemplate.update(String.format(FIXTURE_INSERT, file));
+        log.info("Loaded {} groceries from {} in {} ms", inserted, path, (System.nanoTime() - started) / 1_000_000);
     }
-}
\ No newline at end of file
+}
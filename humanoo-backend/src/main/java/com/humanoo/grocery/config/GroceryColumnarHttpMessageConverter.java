@@ -0,0 +1,123 @@
+package com.humanoo.grocery.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanoo.grocery.dto.GroceryResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Writes list responses as {@value #COLUMNAR_JSON_VALUE}: one array per field, so
+ * each field name appears once per response instead of once per row.
+ *
+ * <pre>{"count":2,"id":[1,2],"name":["Apples","Milk"],...}</pre>
+ *
+ * Only used when a client asks for the media type explicitly; a wildcard Accept
+ * header keeps getting plain JSON.
+ */
+public class GroceryColumnarHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<GroceryResponse>> {
+
+    public static final String COLUMNAR_JSON_VALUE = "application/vnd.humanoo.columnar+json";
+    public static final MediaType COLUMNAR_JSON = MediaType.parseMediaType(COLUMNAR_JSON_VALUE);
+
+    private static final Map<String, Function<GroceryResponse, Object>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        COLUMNS.put("id", GroceryResponse::getId);
+        COLUMNS.put("name", GroceryResponse::getName);
+        COLUMNS.put("description", GroceryResponse::getDescription);
+        COLUMNS.put("price", GroceryResponse::getPrice);
+        COLUMNS.put("quantity", GroceryResponse::getQuantity);
+        COLUMNS.put("reorderThreshold", GroceryResponse::getReorderThreshold);
+        COLUMNS.put("category", GroceryResponse::getCategory);
+        COLUMNS.put("unit", GroceryResponse::getUnit);
+        COLUMNS.put("createdAt", GroceryResponse::getCreatedAt);
+        COLUMNS.put("updatedAt", GroceryResponse::getUpdatedAt);
+        COLUMNS.put("version", GroceryResponse::getVersion);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public GroceryColumnarHttpMessageConverter(ObjectMapper objectMapper) {
+        super(COLUMNAR_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    public void write(List<GroceryResponse> rows, OutputStream out) throws IOException {
+        // values go through the application's ObjectMapper, so dates and prices look as in plain JSON
+        JsonGenerator generator = objectMapper.createGenerator(out);
+        generator.writeStartObject();
+        generator.writeNumberField("count", rows.size());
+        for (Map.Entry<String, Function<GroceryResponse, Object>> column : COLUMNS.entrySet()) {
+            generator.writeArrayFieldStart(column.getKey());
+            for (GroceryResponse row : rows) {
+                generator.writeObject(column.getValue().apply(row));
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    // Not producible for a null (any) media type, so content negotiation only
+    // selects this converter when the client named the columnar type.
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return mediaType != null && COLUMNAR_JSON.equalsTypeAndSubtype(mediaType)
+                && isGroceryList(type != null ? type : clazz);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<GroceryResponse> rows, Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        write(rows, outputMessage.getBody());
+    }
+
+    @Override
+    public List<GroceryResponse> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Columnar JSON is a response-only format");
+    }
+
+    @Override
+    protected List<GroceryResponse> readInternal(Class<? extends List<GroceryResponse>> clazz,
+            HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Columnar JSON is a response-only format");
+    }
+
+    private static boolean isGroceryList(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolved.toClass())
+                && GroceryResponse.class.equals(resolved.asCollection().resolveGeneric(0));
+    }
+}
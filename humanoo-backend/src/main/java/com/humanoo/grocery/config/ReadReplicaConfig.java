@@ -0,0 +1,101 @@
+package com.humanoo.grocery.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write routing, enabled by setting {@code grocery.datasource.replicas.urls}.
+ *
+ * <p>The application's DataSource becomes a {@link LazyConnectionDataSourceProxy}
+ * over the primary (spring.datasource.*). It fetches the physical connection at the
+ * first statement, after the transaction has marked it read-only, so
+ * {@code @Transactional(readOnly = true)} service methods and Spring Data's read
+ * methods get a {@link ReplicaDataSource} connection and everything else the primary.
+ * Flyway migrates the primary only.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("grocery.datasource.replicas.urls")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private final Duration readYourWritesWindow;
+    private final long readYourWritesMaxClients;
+
+    @Autowired
+    public ReadReplicaConfig(@Value("${grocery.datasource.read-your-writes.window:2s}") Duration readYourWritesWindow,
+            @Value("${grocery.datasource.read-your-writes.max-clients:100000}") long readYourWritesMaxClients) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.readYourWritesMaxClients = readYourWritesMaxClients;
+    }
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            @Value("${grocery.datasource.replicas.urls}") List<String> urls,
+            @Value("${grocery.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${grocery.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${grocery.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${grocery.datasource.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${grocery.datasource.replicas.health-interval:5s}") Duration healthInterval,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            // a dead replica must fail fast so the read falls over to another one, and
+            // must not stop the application from starting; the health check brings it back
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(
+                    new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, healthInterval);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(replicaDataSource);
+        return routing;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesWindow, readYourWritesMaxClients))
+                .addPathPatterns("/api/groceries", "/api/groceries/**");
+    }
+}
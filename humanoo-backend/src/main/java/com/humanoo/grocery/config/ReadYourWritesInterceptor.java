@@ -0,0 +1,63 @@
+package com.humanoo.grocery.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes on top of replica routing. Write requests run pinned to the
+ * primary, including the reads they make (existence and version checks). For
+ * {@code window} after a client's last successful write its reads go to the
+ * primary as well, so it never sees a replica that has not caught up yet.
+ *
+ * <p>Clients are identified by remote address, as in {@link AdmissionControlInterceptor}.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST
+                && (isWrite(request) || recentWriters.getIfPresent(request.getRemoteAddr()) != null)) {
+            ReplicaDataSource.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ReplicaDataSource.unpin();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ReplicaDataSource.unpin();
+        if (isWrite(request) && ex == null && response.getStatus() < 400) {
+            recentWriters.put(request.getRemoteAddr(), Boolean.TRUE);
+        }
+    }
+
+    boolean isRecentWriter(String client) {
+        return recentWriters.getIfPresent(client) != null;
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+    }
+}
@@ -0,0 +1,60 @@
+package com.humanoo.grocery.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Records how many rows each repository query returned, tagged like Spring Boot's
+ * spring.data.repository.invocations timer so the two can be read side by side.
+ * Results whose size is not known up front (streams, counts, single values) are
+ * not recorded.
+ */
+public class RepositoryRowCountInterceptor implements MethodInterceptor {
+
+    public static final String METRIC = "grocery.repository.rows";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final String repository;
+
+    public RepositoryRowCountInterceptor(Supplier<MeterRegistry> meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rowCount(result);
+        MeterRegistry registry = rows >= 0 ? meterRegistry.get() : null;
+        if (registry != null) {
+            DistributionSummary.builder(METRIC)
+                    .baseUnit("rows")
+                    .tag("repository", repository)
+                    .tag("method", invocation.getMethod().getName())
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(rows);
+        }
+        return result;
+    }
+
+    static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
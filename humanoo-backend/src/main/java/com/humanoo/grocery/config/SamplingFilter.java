@@ -0,0 +1,28 @@
+package com.humanoo.grocery.config;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback filter that lets through roughly {@code sampleRate} (0..1) of the events.
+ * Used on the slow-query appender so a struggling database cannot flood the log.
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private double sampleRate = 1.0;
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
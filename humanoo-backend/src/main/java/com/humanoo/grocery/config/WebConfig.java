@@ -0,0 +1,27 @@
+package com.humanoo.grocery.config;
+
+import com.humanoo.grocery.service.GroceryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final GroceryService groceryService;
+
+    @Autowired
+    public WebConfig(GroceryService groceryService) {
+        this.groceryService = groceryService;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // endpoints whose body depends on the whole catalog; single items carry their own ETag
+        registry.addInterceptor(new CatalogETagInterceptor(groceryService))
+                .addPathPatterns("/api/groceries", "/api/groceries/search", "/api/groceries/category/**",
+                        "/api/groceries/price-range", "/api/groceries/filter", "/api/groceries/low-stock",
+                        "/api/groceries/categories", "/api/groceries/stats");
+    }
+}
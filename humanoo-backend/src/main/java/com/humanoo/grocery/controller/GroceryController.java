@@ -1,29 +1,87 @@
 package com.humanoo.grocery.controller;
 
+import com.humanoo.grocery.dto.CacheStatsResponse;
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryBatchRequest;
+import com.humanoo.grocery.dto.GroceryBatchResponse;
 import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryHistoryEntry;
+import com.humanoo.grocery.dto.GroceryImportJob;
+import com.humanoo.grocery.dto.GroceryPage;
 import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySyncResponse;
 import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.dto.StockAdjustmentRequest;
+import com.humanoo.grocery.dto.StockReservationRequest;
+import com.humanoo.grocery.service.GroceryBatchService;
+import com.humanoo.grocery.service.GroceryChangeFeed;
+import com.humanoo.grocery.service.GroceryExportService;
+import com.humanoo.grocery.service.GroceryHistoryLog;
+import com.humanoo.grocery.service.GroceryImportService;
 import com.humanoo.grocery.service.GroceryService;
+import com.humanoo.grocery.service.GroceryStockService;
+import com.humanoo.grocery.service.GrocerySyncService;
+import com.humanoo.grocery.service.PreconditionFailedException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/groceries")
-@CrossOrigin(origins = "http://localhost:3000") // I used this to allow cross-origin requests from the frontend
+// I used this to allow cross-origin requests from the frontend
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = { GroceryController.NEXT_CURSOR_HEADER,
+        HttpHeaders.ETAG })
 public class GroceryController {
 
+    // List endpoints keep returning a plain JSON array; when paging is requested the
+    // token for the following page travels in this header (absent on the last page).
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // Same default as /low-stock, used when /filter is called with lowStock=true.
+    private static final int LOW_STOCK_THRESHOLD = 10;
+
     private final GroceryService groceryService;
+    private final GroceryExportService groceryExportService;
+    private final GroceryBatchService groceryBatchService;
+    private final GroceryStockService groceryStockService;
+    private final GroceryChangeFeed groceryChangeFeed;
+    private final GroceryHistoryLog groceryHistoryLog;
+    private final GroceryImportService groceryImportService;
+    private final GrocerySyncService grocerySyncService;
 
     @Autowired
-    public GroceryController(GroceryService groceryService) {
+    public GroceryController(GroceryService groceryService, GroceryExportService groceryExportService,
+            GroceryBatchService groceryBatchService, GroceryStockService groceryStockService,
+            GroceryChangeFeed groceryChangeFeed, GroceryHistoryLog groceryHistoryLog,
+            GroceryImportService groceryImportService, GrocerySyncService grocerySyncService) {
         this.groceryService = groceryService;
+        this.groceryExportService = groceryExportService;
+        this.groceryBatchService = groceryBatchService;
+        this.groceryStockService = groceryStockService;
+        this.groceryChangeFeed = groceryChangeFeed;
+        this.groceryHistoryLog = groceryHistoryLog;
+        this.groceryImportService = groceryImportService;
+        this.grocerySyncService = grocerySyncService;
     }
 
     @PostMapping
@@ -36,30 +94,102 @@ public class GroceryController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<GroceryBatchResponse> applyBatch(@Valid @RequestBody GroceryBatchRequest request) {
+        // per-item failures are reported in the body, so the batch itself is always 200
+        GroceryBatchResponse response = groceryBatchService.applyBatch(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // The CSV body is spooled to disk, never buffered whole, and imported in the
+    // background; the 202 carries the started job, GET /import/{jobId} follows it.
+    @PostMapping(value = "/import", consumes = { "text/csv", MediaType.TEXT_PLAIN_VALUE })
+    public ResponseEntity<GroceryImportJob> importGroceries(InputStream body) throws IOException {
+        GroceryImportJob job = groceryImportService.submitCsv(body);
+        return ResponseEntity.accepted().location(URI.create("/api/groceries/import/" + job.getJobId())).body(job);
+    }
+
+    @GetMapping("/import")
+    public ResponseEntity<List<GroceryImportJob>> getImportJobs() {
+        return ResponseEntity.ok(groceryImportService.getJobs());
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<GroceryImportJob> getImportJob(@PathVariable String jobId) {
+        return groceryImportService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
-    public ResponseEntity<List<GroceryResponse>> getAllGroceries() {
+    public ResponseEntity<List<GroceryResponse>> getAllGroceries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.getAllGroceries(cursor, limit));
+        }
         List<GroceryResponse> groceries = groceryService.getAllGroceries();
         return ResponseEntity.ok(groceries);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<GroceryResponse> getGroceryById(@PathVariable Long id) {
+    public ResponseEntity<GroceryResponse> getGroceryById(@PathVariable Long id, WebRequest webRequest) {
         Optional<GroceryResponse> grocery = groceryService.getGroceryById(id);
-        return grocery.map(response -> ResponseEntity.ok(response))
-                .orElse(ResponseEntity.notFound().build());
+        if (grocery.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = itemETag(grocery.get());
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return withETag(ResponseEntity.ok(), eTag).body(grocery.get());
+    }
+
+    // Kept for deleted items too, so an unknown id is an empty list rather than 404
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<GroceryHistoryEntry>> getGroceryHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(groceryHistoryLog.findHistory(id, from, to, limit));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<GroceryResponse> updateGrocery(@PathVariable Long id,
-            @Valid @RequestBody GroceryUpdateRequest request) {
+            @Valid @RequestBody GroceryUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            GroceryResponse response = groceryService.updateGrocery(id, request);
-            return ResponseEntity.ok(response);
+            GroceryResponse response = groceryService.updateGrocery(id, request, expectedVersion(id, ifMatch));
+            return withETag(ResponseEntity.ok(), itemETag(response)).body(response);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    // Insufficient stock and stock past the int limit are answered with 409 by the
+    // GlobalExceptionHandler
+    @PostMapping("/{id}/stock")
+    public ResponseEntity<GroceryResponse> adjustStock(@PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        try {
+            GroceryResponse response = groceryStockService.adjustStock(id, request.getDelta());
+            return withETag(ResponseEntity.ok(), itemETag(response)).body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/stock/reservations")
+    public ResponseEntity<List<GroceryResponse>> reserveStock(@Valid @RequestBody StockReservationRequest request) {
+        try {
+            List<GroceryResponse> response = groceryStockService.reserveStock(request.getItems());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteGrocery(@PathVariable Long id) {
         try {
@@ -71,64 +201,196 @@ public class GroceryController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<GroceryResponse>> searchGroceries(@RequestParam String name) {
+    public ResponseEntity<List<GroceryResponse>> searchGroceries(@RequestParam String name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.searchGroceriesByName(name, cursor, limit));
+        }
         List<GroceryResponse> groceries = groceryService.searchGroceriesByName(name);
         return ResponseEntity.ok(groceries);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<GroceryResponse>> getGroceriesByCategory(@PathVariable String category) {
+    public ResponseEntity<List<GroceryResponse>> getGroceriesByCategory(@PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.getGroceriesByCategory(category, cursor, limit));
+        }
         List<GroceryResponse> groceries = groceryService.getGroceriesByCategory(category);
         return ResponseEntity.ok(groceries);
     }
 
+    // sort=price is answered from the in-memory price index, e.g. the five cheapest
+    // dairy items with category=DAIRY&sort=price&direction=asc&limit=5
     @GetMapping("/price-range")
     public ResponseEntity<List<GroceryResponse>> getGroceriesByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<GroceryResponse> groceries = groceryService.getGroceriesByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(groceries);
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false, defaultValue = "updatedAt") String sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sortBy(sort)
+                .ascending("asc".equalsIgnoreCase(direction))
+                .build();
+
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.filterGroceries(criteria, cursor, limit));
+        }
+        return ResponseEntity.ok(groceryService.filterGroceries(criteria));
     }
 
     @GetMapping("/filter")
     public ResponseEntity<List<GroceryResponse>> filterGroceries(
-            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> category,
             @RequestParam(required = false) BigDecimal minPrice,
-            @RequestParam(required = false) BigDecimal maxPrice) {
-
-        List<GroceryResponse> groceries;
-
-        if (category != null && minPrice != null && maxPrice != null) {
-            groceries = groceryService.filterGroceries(category, minPrice, maxPrice);
-        } else if (category != null && minPrice != null) {
-            groceries = groceryService.filterGroceries(category, minPrice, new BigDecimal("999999"));
-        } else if (category != null && maxPrice != null) {
-            groceries = groceryService.filterGroceries(category, new BigDecimal("0"), maxPrice);
-        } else if (category != null) {
-            groceries = groceryService.getGroceriesByCategory(category);
-        } else if (minPrice != null && maxPrice != null) {
-            groceries = groceryService.getGroceriesByPriceRange(minPrice, maxPrice);
-        } else if (minPrice != null) {
-            groceries = groceryService.getGroceriesByPriceRange(minPrice, new BigDecimal("999999"));
-        } else if (maxPrice != null) {
-            groceries = groceryService.getGroceriesByPriceRange(new BigDecimal("0"), maxPrice);
-        } else {
-            groceries = groceryService.getAllGroceries();
-        }
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false, defaultValue = "false") boolean lowStock,
+            @RequestParam(required = false) Integer stockBelow,
+            @RequestParam(required = false, defaultValue = "updatedAt") String sort,
+            @RequestParam(required = false, defaultValue = "desc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
 
-        return ResponseEntity.ok(groceries);
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .name(name)
+                .stockBelow(stockBelow != null ? stockBelow : lowStock ? LOW_STOCK_THRESHOLD : null)
+                .sortBy(sort)
+                .ascending("asc".equalsIgnoreCase(direction))
+                .build();
+
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.filterGroceries(criteria, cursor, limit));
+        }
+        return ResponseEntity.ok(groceryService.filterGroceries(criteria));
     }
 
+    // Without a threshold, items below their own reorder threshold (served from memory)
     @GetMapping("/low-stock")
     public ResponseEntity<List<GroceryResponse>> getLowStockGroceries(
-            @RequestParam(required = false, defaultValue = "10") Integer threshold) {
+            @RequestParam(required = false) Integer threshold,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (isPaged(cursor, limit)) {
+            return pagedResponse(groceryService.getLowStockGroceries(threshold, cursor, limit));
+        }
         List<GroceryResponse> groceries = groceryService.getLowStockGroceries(threshold);
         return ResponseEntity.ok(groceries);
     }
 
+    @GetMapping("/low-stock/alerts")
+    public ResponseEntity<List<LowStockAlert>> getLowStockAlerts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(groceryService.getLowStockAlerts(after, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportGroceries() {
+        // the body runs on an async thread after this method returns, rows are written as they are read
+        StreamingResponseBody body = groceryExportService::exportGroceries;
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // Live feed of committed changes; EventSource sends Last-Event-ID on reconnect
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return groceryChangeFeed.subscribe(lastEventId);
+    }
+
+    // Incremental refresh for clients keeping a local copy; omit since for a full sync
+    @GetMapping("/sync")
+    public ResponseEntity<GrocerySyncResponse> syncGroceries(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(grocerySyncService.sync(since, limit));
+    }
+
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getAllCategories() {
         List<String> categories = groceryService.getAllCategories();
         return ResponseEntity.ok(categories);
     }
+
+    // Same filters as /filter; without any, the maintained whole-catalog stats
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsResponse>> getCategoryStats(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Integer stockBelow) {
+        return ResponseEntity.ok(groceryService.getCategoryStats(GroceryFilterCriteria.builder()
+                .categories(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .name(name)
+                .stockBelow(stockBelow)
+                .build()));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(groceryService.getCacheStats());
+    }
+
+    // Strong per-item tag, "<id>-<version>", so PUT can take it back in If-Match. Tomcat
+    // does not gzip a strongly tagged body; single items are below the compression
+    // threshold anyway, and the large list responses keep their weak catalog tag.
+    private String itemETag(GroceryResponse grocery) {
+        if (grocery.getVersion() == null) {
+            return null;
+        }
+        return "\"" + grocery.getId() + "-" + grocery.getVersion() + "\"";
+    }
+
+    // Version from an If-Match header, or null when there is nothing to check ("*" or absent).
+    // If-Match uses the strong comparison (RFC 9110), so a weak tag never matches; neither
+    // does a tag that does not belong to this item. Both fail the precondition.
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match needs a strong ETag: " + ifMatch);
+        }
+        tag = tag.replace("\"", "");
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix)) {
+            throw new PreconditionFailedException("If-Match does not refer to grocery " + id);
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Malformed If-Match: " + ifMatch);
+        }
+    }
+
+    private ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String eTag) {
+        return eTag == null ? builder : builder.eTag(eTag);
+    }
+
+    private boolean isPaged(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
+
+    private ResponseEntity<List<GroceryResponse>> pagedResponse(GroceryPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
\ No newline at end of file
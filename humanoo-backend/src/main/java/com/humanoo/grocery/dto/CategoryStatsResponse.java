@@ -0,0 +1,23 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CategoryStatsResponse {
+    private String category;
+    private long itemCount;
+    private long totalQuantity;
+    // sum of price * quantity
+    private BigDecimal inventoryValue;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal avgPrice;
+}
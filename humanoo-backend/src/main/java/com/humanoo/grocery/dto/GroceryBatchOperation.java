@@ -0,0 +1,25 @@
+package com.humanoo.grocery.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryBatchOperation {
+    @NotNull(message = "Operation type is required")
+    private BatchOperationType type;
+
+    // required for UPDATE and DELETE
+    private Long id;
+
+    // used for CREATE, validated per item so one bad row does not fail the batch
+    private GroceryCreateRequest create;
+
+    // used for UPDATE, validated per item
+    private GroceryUpdateRequest update;
+}
@@ -0,0 +1,21 @@
+package com.humanoo.grocery.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryBatchRequest {
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 1000, message = "A batch must not exceed 1000 operations")
+    private List<@Valid GroceryBatchOperation> operations;
+}
@@ -0,0 +1,20 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryBatchResult {
+    // position of the operation in the request
+    private int index;
+    private BatchOperationType type;
+    private boolean success;
+    private Long id;
+    private GroceryResponse grocery;
+    private String error;
+}
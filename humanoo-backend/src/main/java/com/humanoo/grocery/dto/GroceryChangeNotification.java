@@ -0,0 +1,26 @@
+package com.humanoo.grocery.dto;
+
+import com.humanoo.grocery.event.GroceryChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Payload of one event on GET /api/groceries/changes. Deliberately small: clients
+ * fetch the item itself if the listed fields matter to them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryChangeNotification {
+    private Long id;
+    private GroceryChangeType operation;
+    // properties that differ from the previous state; every set property for creates, empty for deletes
+    private List<String> changedFields;
+    // version after the change, or the last known version for deletes
+    private Long version;
+}
@@ -28,6 +28,9 @@ public class GroceryCreateRequest {
     @Min(value = 0, message = "Quantity must be non-negative")
     private Integer quantity;
 
+    @Min(value = 0, message = "Reorder threshold must be non-negative")
+    private Integer reorderThreshold;
+
     @NotBlank(message = "Category is required")
     @Size(min = 1, max = 50, message = "Category must be between 1 and 50 characters")
     private String category;
@@ -0,0 +1,32 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Every filter the catalog supports; null (or empty) fields are simply left out of
+ * the generated WHERE clause.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryFilterCriteria {
+    // matches any of the given categories
+    private List<String> categories;
+    // inclusive bounds
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    // quantity strictly below this value
+    private Integer stockBelow;
+    // case-insensitive substring of the name
+    private String name;
+    // one of updatedAt, price, quantity, name; defaults to updatedAt
+    private String sortBy;
+    private boolean ascending;
+}
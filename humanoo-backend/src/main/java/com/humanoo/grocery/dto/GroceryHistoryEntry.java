@@ -0,0 +1,27 @@
+package com.humanoo.grocery.dto;
+
+import com.humanoo.grocery.event.GroceryChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of GET /api/groceries/{id}/history: the price and quantity the item
+ * had after the change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryHistoryEntry {
+    private GroceryChangeType operation;
+    // null for deletes
+    private BigDecimal price;
+    private Integer quantity;
+    private Long version;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,30 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryImportJob {
+    private String jobId;
+    private GroceryImportStatus status;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    // imported + failed rows per second since the job started
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // the first grocery.import.max-errors failed rows; rowsFailed has the full count
+    private List<GroceryImportRowError> errors;
+    private boolean errorsTruncated;
+    // why a FAILED job stopped
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryImportRowError {
+    // line of the CSV file the row starts on; the header is line 1
+    private long line;
+    private String error;
+}
@@ -0,0 +1,7 @@
+package com.humanoo.grocery.dto;
+
+public enum GroceryImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
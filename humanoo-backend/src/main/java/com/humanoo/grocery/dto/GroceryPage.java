@@ -0,0 +1,18 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryPage {
+    private List<GroceryResponse> content;
+    // null when this is the last page
+    private String nextCursor;
+}
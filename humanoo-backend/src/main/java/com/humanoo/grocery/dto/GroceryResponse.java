@@ -18,8 +18,10 @@ public class GroceryResponse {
     private String description;
     private BigDecimal price;
     private Integer quantity;
+    private Integer reorderThreshold;
     private String category;
     private String unit;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
\ No newline at end of file
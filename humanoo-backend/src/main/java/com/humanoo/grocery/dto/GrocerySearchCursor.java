@@ -0,0 +1,46 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in ranked search results. Search pages are in relevance order,
+ * not newest first, so unlike {@link GroceryCursor} the cursor carries the score of
+ * the last row of the previous page along with its {@code (updatedAt, id)} pair.
+ */
+@Getter
+@AllArgsConstructor
+public class GrocerySearchCursor {
+
+    private final int score;
+    private final LocalDateTime updatedAt;
+    private final Long id;
+
+    public String encode() {
+        String raw = score + "|" + updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null for a missing token, meaning the first page. */
+    public static GrocerySearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new GrocerySearchCursor(Integer.parseInt(parts[0]),
+                    "null".equals(parts[1]) ? null : LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
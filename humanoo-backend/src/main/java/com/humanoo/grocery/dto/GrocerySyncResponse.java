@@ -0,0 +1,25 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GrocerySyncResponse {
+    // created or updated since the token, in change order
+    private List<GroceryResponse> upserts;
+    // ids deleted since the token
+    private List<Long> deleted;
+    // pass as ?since= on the next call
+    private String token;
+    // more changes are waiting; call again with the new token right away
+    private boolean hasMore;
+    // the client's copy must be discarded and rebuilt from this full sync
+    private boolean reset;
+}
@@ -0,0 +1,50 @@
+package com.humanoo.grocery.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in the catalog's change sequence, handed out by
+ * GET /api/groceries/sync. It also carries when the client's copy was last known
+ * to be complete, so a token older than the tombstone retention can be refused
+ * instead of silently missing deletes.
+ */
+@Getter
+@AllArgsConstructor
+public class GrocerySyncToken {
+
+    private final long sequence;
+    private final Instant issuedAt;
+
+    public String encode() {
+        String raw = sequence + "|" + issuedAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null for a missing token, meaning a full sync
+    public static GrocerySyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            long sequence = Long.parseLong(raw.substring(0, separator));
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Invalid sync token: " + token);
+            }
+            return new GrocerySyncToken(sequence, Instant.parse(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // Base64 decoding failures are IllegalArgumentExceptions already
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -25,6 +25,9 @@ public class GroceryUpdateRequest {
     @Min(value = 0, message = "Quantity must be non-negative")
     private Integer quantity;
 
+    @Min(value = 0, message = "Reorder threshold must be non-negative")
+    private Integer reorderThreshold;
+
     @Size(min = 1, max = 50, message = "Category must be between 1 and 50 characters")
     private String category;
 
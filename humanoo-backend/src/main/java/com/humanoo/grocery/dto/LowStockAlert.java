@@ -0,0 +1,31 @@
+package com.humanoo.grocery.dto;
+
+import com.humanoo.grocery.event.LowStockAlertType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One threshold crossing recorded by the low-stock monitor. Returned by
+ * GET /api/groceries/low-stock/alerts and pushed as a {@code low-stock} event on
+ * GET /api/groceries/changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockAlert {
+    // increases by one per alert; pass the last one seen as ?after= to poll for newer alerts
+    private Long sequence;
+    private LowStockAlertType type;
+    private Long groceryId;
+    private String name;
+    private String category;
+    // quantity after the change; null when the item was deleted
+    private Integer quantity;
+    private Integer threshold;
+    private LocalDateTime raisedAt;
+}
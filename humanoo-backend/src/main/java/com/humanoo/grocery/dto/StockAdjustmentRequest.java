@@ -0,0 +1,17 @@
+package com.humanoo.grocery.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAdjustmentRequest {
+    // negative to take stock out, positive to put it back
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,19 @@
+package com.humanoo.grocery.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationItem {
+    @NotNull(message = "Id is required")
+    private Long id;
+
+    @NotNull(message = "Delta is required")
+    private Integer delta;
+}
@@ -0,0 +1,21 @@
+package com.humanoo.grocery.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+    @NotEmpty(message = "Items are required")
+    @Size(max = 100, message = "A reservation must not exceed 100 items")
+    private List<@Valid StockReservationItem> items;
+}
@@ -0,0 +1,7 @@
+package com.humanoo.grocery.event;
+
+public enum GroceryChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,34 @@
+package com.humanoo.grocery.event;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the write paths whenever a grocery is created, updated or deleted.
+ * Derived in-memory views (cache, search index, ...) listen with
+ * {@code @TransactionalEventListener(fallbackExecution = true)} so they only see
+ * committed changes.
+ */
+@Getter
+@AllArgsConstructor
+public class GroceryChangedEvent {
+    private final GroceryChangeType type;
+    private final Long id;
+    // state before the change; null for creates and for deletes that did not load the row
+    private final GroceryResponse before;
+    // state after the change; null for deletes
+    private final GroceryResponse after;
+
+    public static GroceryChangedEvent created(GroceryResponse after) {
+        return new GroceryChangedEvent(GroceryChangeType.CREATED, after.getId(), null, after);
+    }
+
+    public static GroceryChangedEvent updated(GroceryResponse before, GroceryResponse after) {
+        return new GroceryChangedEvent(GroceryChangeType.UPDATED, after.getId(), before, after);
+    }
+
+    public static GroceryChangedEvent deleted(Long id, GroceryResponse before) {
+        return new GroceryChangedEvent(GroceryChangeType.DELETED, id, before, null);
+    }
+}
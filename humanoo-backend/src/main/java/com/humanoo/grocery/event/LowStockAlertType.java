@@ -0,0 +1,8 @@
+package com.humanoo.grocery.event;
+
+public enum LowStockAlertType {
+    // quantity dropped below the reorder threshold
+    RAISED,
+    // restocked to the threshold or above, or deleted
+    CLEARED
+}
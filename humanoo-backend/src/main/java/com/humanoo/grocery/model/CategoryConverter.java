@@ -0,0 +1,38 @@
+package com.humanoo.grocery.model;
+
+import com.humanoo.grocery.repository.CategoryDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Stores Grocery.category as its categories.id, so queries compare and index a
+ * small integer while the entity, JPQL results and the API keep the name. Query
+ * parameters are converted too; a name that is not in the table becomes
+ * {@link CategoryDictionary#UNKNOWN} and matches nothing.
+ *
+ * <p>Created by Spring through Hibernate's bean container. The dictionary is
+ * injected lazily because the converter is needed while the EntityManagerFactory
+ * is still being built.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+
+    private final CategoryDictionary categoryDictionary;
+
+    @Autowired
+    public CategoryConverter(@Lazy CategoryDictionary categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        return category != null ? categoryDictionary.idOf(category) : null;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer categoryId) {
+        return categoryId != null ? categoryDictionary.nameOf(categoryId) : null;
+    }
+}
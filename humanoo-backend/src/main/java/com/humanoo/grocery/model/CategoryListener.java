@@ -0,0 +1,31 @@
+package com.humanoo.grocery.model;
+
+import com.humanoo.grocery.repository.CategoryDictionary;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Adds a grocery's category to the dictionary before the row is written, so
+ * CategoryConverter finds an id for it. Kept out of the converter, which also
+ * converts query parameters and must not create a category for every name
+ * someone filters by.
+ */
+public class CategoryListener {
+
+    private final CategoryDictionary categoryDictionary;
+
+    @Autowired
+    public CategoryListener(@Lazy CategoryDictionary categoryDictionary) {
+        this.categoryDictionary = categoryDictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void registerCategory(Grocery grocery) {
+        if (grocery.getCategory() != null) {
+            categoryDictionary.register(grocery.getCategory());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.humanoo.grocery.model;
+
+import com.humanoo.grocery.repository.ChangeSequenceWatermark;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Registers the transaction with the change sequence watermark before Hibernate
+ * writes a grocery, since the insert or update takes a change_seq value (see V4).
+ */
+public class ChangeSequenceListener {
+
+    private final ChangeSequenceWatermark sequenceWatermark;
+
+    @Autowired
+    public ChangeSequenceListener(@Lazy ChangeSequenceWatermark sequenceWatermark) {
+        this.sequenceWatermark = sequenceWatermark;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void enterWrite(Grocery grocery) {
+        sequenceWatermark.enter();
+    }
+}
@@ -11,14 +11,24 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "groceries")
+@Table(name = "groceries", indexes = {
+        @Index(name = "idx_groceries_category_updated", columnList = "category_id, updated_at"),
+        @Index(name = "idx_groceries_updated_id", columnList = "updated_at, id"),
+        @Index(name = "idx_groceries_price", columnList = "price"),
+        @Index(name = "idx_groceries_quantity", columnList = "quantity"),
+        @Index(name = "idx_groceries_change_seq", columnList = "change_seq", unique = true)
+})
+@EntityListeners({ CategoryListener.class, ChangeSequenceListener.class })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Grocery {
+    // Sequence with a pooled optimizer: ids are handed out in memory so inserts can be
+    // JDBC-batched, which IDENTITY columns do not allow.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grocery_seq")
+    @SequenceGenerator(name = "grocery_seq", sequenceName = "grocery_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -40,9 +50,16 @@ public class Grocery {
     @Column(nullable = false)
     private Integer quantity;
 
+    // Low-stock alert fires when quantity drops below this; null uses the category/global default
+    @Min(value = 0, message = "Reorder threshold must be non-negative")
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
+    // The name everywhere in Java and the API; stored as the categories.id it maps to
     @NotBlank(message = "Category is required")
     @Size(min = 1, max = 50, message = "Category must be between 1 and 50 characters")
-    @Column(nullable = false, length = 50)
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id", nullable = false)
     private String category;
 
     @Size(max = 20, message = "Unit must not exceed 20 characters")
@@ -55,6 +72,16 @@ public class Grocery {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic locking; also the basis of the per-item ETag
+    @Version
+    private Long version;
+
+    // Catalog-wide position of the last write to this row, for delta sync. Assigned by
+    // the database on every insert and update (see V4), so never written from here and
+    // not refreshed on a loaded entity after it is saved.
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSequence;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,52 @@
+package com.humanoo.grocery.model;
+
+import com.humanoo.grocery.event.GroceryChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only price/quantity history. Rows are only ever inserted,
+ * in batches, by GroceryHistoryLog.
+ */
+@Entity
+@Table(name = "grocery_history", indexes = {
+        @Index(name = "idx_grocery_history_grocery_changed", columnList = "grocery_id, changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryHistory {
+    // pooled sequence, like Grocery, so a flush is a single JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "grocery_history_seq")
+    @SequenceGenerator(name = "grocery_history_seq", sequenceName = "grocery_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "grocery_id", nullable = false)
+    private Long groceryId;
+
+    // plain VARCHAR rather than the dialect's native enum type, to match the migration
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 10)
+    private GroceryChangeType operation;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    private Integer quantity;
+
+    private Long version;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,35 @@
+package com.humanoo.grocery.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a hard delete, so delta sync can tell clients which ids to
+ * drop. Inserted by GrocerySyncService and purged once older than the retention.
+ */
+@Entity
+@Table(name = "grocery_tombstones", indexes = {
+        @Index(name = "idx_grocery_tombstones_change_seq", columnList = "change_seq", unique = true),
+        @Index(name = "idx_grocery_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroceryTombstone {
+    @Id
+    @Column(name = "grocery_id")
+    private Long groceryId;
+
+    // from the column default, the same sequence as groceries.change_seq
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSequence;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
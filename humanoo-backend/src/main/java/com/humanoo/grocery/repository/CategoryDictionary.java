@@ -0,0 +1,206 @@
+package com.humanoo.grocery.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-process name to id dictionary over the categories table, through which
+ * CategoryConverter maps Grocery.category. The table has a row per category ever
+ * used, so the whole of it is held in memory: loaded on first use, warmed once the
+ * application is ready, and reloaded on a miss, which picks up categories added
+ * by another instance or by the fixture loader.
+ *
+ * <p>A miss reloads at most once per {@code grocery.categories.unknown-ttl}, and a
+ * name still unknown afterwards is remembered as such for that long, so requests
+ * naming made-up categories cannot force a reload each.
+ *
+ * <p>Plain JDBC rather than a repository: lookups happen while Hibernate binds or
+ * reads a row, where a query through the session could trigger a nested flush. The
+ * statements go through {@link JdbcTemplate}, which runs them on the connection of
+ * the caller's transaction, so a lookup never holds a second pooled connection.
+ */
+@Component
+public class CategoryDictionary {
+
+    /** Id of a name that is not in the table; matches no row and fails the foreign key. */
+    public static final int UNKNOWN = -1;
+
+    private static final String INSERT = "INSERT INTO categories (name) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long reloadIntervalNanos;
+    private final Cache<String, Boolean> unknownNames;
+
+    // replaced together under the lock, read without it
+    private volatile Map<String, Integer> ids;
+    private volatile Map<Integer, String> names;
+    private long loadedAt;
+
+    @Autowired
+    public CategoryDictionary(DataSource dataSource,
+            @Value("${grocery.categories.unknown-ttl:10s}") Duration unknownTtl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.reloadIntervalNanos = unknownTtl.toNanos();
+        this.unknownNames = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(unknownTtl).build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        reload();
+    }
+
+    /** The id of {@code name}, or {@link #UNKNOWN}; never adds a row, so safe on the query path. */
+    public int idOf(String name) {
+        Integer id = loaded().get(name);
+        if (id == null) {
+            id = pending().get(name);
+        }
+        if (id != null) {
+            return id;
+        }
+        if (unknownNames.getIfPresent(name) != null) {
+            return UNKNOWN;
+        }
+        reloadIfOlderThan(reloadIntervalNanos);
+        id = ids.get(name);
+        if (id == null) {
+            unknownNames.put(name, Boolean.TRUE);
+            return UNKNOWN;
+        }
+        return id;
+    }
+
+    public String nameOf(int id) {
+        loaded();
+        String name = names.get(id);
+        if (name == null) {
+            name = pendingName(id);
+        }
+        if (name == null) {
+            // ids come from rows, not from clients, so an unknown one always reloads
+            reloadIfOlderThan(0);
+            name = names.get(id);
+        }
+        if (name == null) {
+            throw new IllegalStateException("Unknown category id: " + id);
+        }
+        return name;
+    }
+
+    /**
+     * The id of {@code name}, adding the category first if it is new. Inside a
+     * transaction the row is inserted on the transaction's connection and the id is
+     * only visible to that transaction until it commits, so a rollback cannot leave
+     * an id behind that points at nothing. Two transactions adding the same name
+     * both get the id of the row that committed first.
+     */
+    public int register(String name) {
+        Integer id = loaded().get(name);
+        if (id == null) {
+            id = pending().get(name);
+        }
+        if (id != null) {
+            return id;
+        }
+        try {
+            jdbcTemplate.update(INSERT, name);
+        } catch (DuplicateKeyException e) {
+            // another instance or a concurrent transaction added it first; the insert
+            // waited for that one to commit, and H2 keeps our transaction usable
+        }
+        int added = jdbcTemplate.queryForObject("SELECT id FROM categories WHERE name = ?", Integer.class, name);
+        unknownNames.invalidate(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<String, Integer> pending = pending();
+            if (pending.isEmpty()) {
+                TransactionSynchronizationManager.bindResource(this, pending);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(CategoryDictionary.this);
+                        if (status == STATUS_COMMITTED) {
+                            publish(pending);
+                        }
+                    }
+                });
+            }
+            pending.put(name, added);
+        } else {
+            publish(Map.of(name, added));
+        }
+        return added;
+    }
+
+    public int size() {
+        return loaded().size();
+    }
+
+    private Map<String, Integer> loaded() {
+        if (ids == null) {
+            reload();
+        }
+        return ids;
+    }
+
+    // categories this transaction added, not yet committed
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Map.of();
+        }
+        Map<String, Integer> pending = (Map<String, Integer>) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending : new HashMap<>();
+    }
+
+    private String pendingName(int id) {
+        return pending().entrySet().stream()
+                .filter(entry -> entry.getValue() == id)
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private synchronized void publish(Map<String, Integer> added) {
+        Map<String, Integer> newIds = new HashMap<>(loaded());
+        Map<Integer, String> newNames = new HashMap<>(names);
+        added.forEach((name, id) -> {
+            newIds.put(name, id);
+            newNames.put(id, name);
+        });
+        names = Map.copyOf(newNames);
+        ids = Map.copyOf(newIds);
+    }
+
+    private synchronized void reloadIfOlderThan(long ageNanos) {
+        if (System.nanoTime() - loadedAt >= ageNanos) {
+            reload();
+        }
+    }
+
+    private synchronized void reload() {
+        Map<String, Integer> newIds = new HashMap<>();
+        Map<Integer, String> newNames = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories", rs -> {
+            newIds.put(rs.getString(2), rs.getInt(1));
+            newNames.put(rs.getInt(1), rs.getString(2));
+        });
+        // names first: a reader that sees the new ids then also sees their names
+        names = Map.copyOf(newNames);
+        ids = Map.copyOf(newIds);
+        loadedAt = System.nanoTime();
+    }
+}
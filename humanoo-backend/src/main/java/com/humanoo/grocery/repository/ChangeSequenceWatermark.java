@@ -0,0 +1,104 @@
+package com.humanoo.grocery.repository;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Low-water mark of the change sequence values that may still be uncommitted.
+ *
+ * <p>groceries.change_seq and the tombstones take their value when the row is
+ * written, not when the transaction commits, so a sync can read a committed value
+ * above one that a longer transaction (a batch, an import chunk) has taken but not
+ * yet committed. Every transaction that is about to take a value calls
+ * {@link #enter()} first and is tracked until it completes, with a bound below any
+ * value it can take: the highest value a sync has read so far. A sync brackets its
+ * read with {@link #beginRead()} and {@link #endRead}, which returns the lowest
+ * bound of every transaction that was open at any point during the read; a token
+ * held at or below it cannot skip a row that commits later.
+ *
+ * <p>Per instance: writes made by another instance against the same database are
+ * not seen here.
+ */
+@Component
+public class ChangeSequenceWatermark {
+
+    private long observed;
+
+    // write transactions completed so far; orders completions against reads
+    private long epoch;
+
+    private final Map<Object, Long> open = new HashMap<>();
+
+    // completion epoch -> bound, kept while a read that started before it is running
+    private final TreeMap<Long, Long> completed = new TreeMap<>();
+
+    // start epoch -> number of reads started then and still running
+    private final TreeMap<Long, Integer> reads = new TreeMap<>();
+
+    /**
+     * Tracks the current transaction until it completes; call before a statement
+     * that takes a change sequence value. Repeated calls in one transaction are
+     * cheap, and without transaction synchronization it does nothing, since the
+     * statement commits on its own.
+     */
+    public void enter() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        Object transaction = new Object();
+        synchronized (this) {
+            open.put(transaction, observed);
+        }
+        TransactionSynchronizationManager.bindResource(this, transaction);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequenceWatermark.this);
+                complete(transaction);
+            }
+        });
+    }
+
+    /** Marks the start of a sync's read; pass the result to {@link #endRead}. */
+    public synchronized long beginRead() {
+        reads.merge(epoch, 1, Integer::sum);
+        return epoch;
+    }
+
+    /**
+     * Ends a read started at {@code started} that saw values up to {@code highestRead}
+     * and returns the low-water mark, or {@code Long.MAX_VALUE} when no write was in
+     * flight during it.
+     */
+    public synchronized long endRead(long started, long highestRead) {
+        long floor = Long.MAX_VALUE;
+        for (long bound : open.values()) {
+            floor = Math.min(floor, bound);
+        }
+        for (long bound : completed.tailMap(started, false).values()) {
+            floor = Math.min(floor, bound);
+        }
+        reads.computeIfPresent(started, (key, running) -> running == 1 ? null : running - 1);
+        if (reads.isEmpty()) {
+            completed.clear();
+        } else {
+            completed.headMap(reads.firstKey(), true).clear();
+        }
+        observed = Math.max(observed, highestRead);
+        return floor;
+    }
+
+    private synchronized void complete(Object transaction) {
+        Long bound = open.remove(transaction);
+        epoch++;
+        if (bound != null && !reads.isEmpty()) {
+            completed.put(epoch, bound);
+        }
+    }
+}
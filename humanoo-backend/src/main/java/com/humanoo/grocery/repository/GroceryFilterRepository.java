@@ -0,0 +1,30 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+
+import java.util.List;
+
+/**
+ * Criteria-API half of {@link GroceryRepository}; the generated statement selects
+ * straight into {@link GroceryResponse}.
+ */
+public interface GroceryFilterRepository {
+
+    /**
+     * The /filter engine: all criteria, the sort and the limit go into one SQL statement.
+     *
+     * @param after keyset position for the next page, or null for the first one
+     * @param limit maximum rows, or null for all of them
+     */
+    List<GroceryResponse> findMatching(GroceryFilterCriteria criteria, GroceryCursor after, Integer limit);
+
+    /**
+     * Per-category aggregates over the rows matching {@code criteria} (the sort is
+     * ignored), one GROUP BY statement. Sorted by category name in Java once the ids
+     * are decoded, since the database would order them by id.
+     */
+    List<CategoryStatsResponse> aggregateMatching(GroceryFilterCriteria criteria);
+}
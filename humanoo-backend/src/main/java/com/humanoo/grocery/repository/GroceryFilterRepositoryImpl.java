@@ -0,0 +1,85 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.model.Grocery;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+class GroceryFilterRepositoryImpl implements GroceryFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GroceryResponse> findMatching(GroceryFilterCriteria criteria, GroceryCursor after, Integer limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<GroceryResponse> query = cb.createQuery(GroceryResponse.class);
+        Root<Grocery> g = query.from(Grocery.class);
+
+        // same column order as GroceryRepository.AS_RESPONSE
+        query.select(cb.construct(GroceryResponse.class, g.get("id"), g.get("name"), g.get("description"),
+                        g.get("price"), g.get("quantity"), g.get("reorderThreshold"), g.get("category"), g.get("unit"),
+                        g.get("createdAt"), g.get("updatedAt"), g.get("version")))
+                .where(GrocerySpecifications.matching(criteria, after).toPredicate(g, query, cb))
+                .orderBy(QueryUtils.toOrders(GrocerySpecifications.sortOf(criteria), g, cb));
+
+        TypedQuery<GroceryResponse> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<CategoryStatsResponse> aggregateMatching(GroceryFilterCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Grocery> g = query.from(Grocery.class);
+        Path<String> category = g.get("category");
+        Path<BigDecimal> price = g.get("price");
+        Path<Integer> quantity = g.get("quantity");
+
+        query.multiselect(category, cb.count(g), cb.sumAsLong(quantity), cb.sum(cb.prod(price, quantity)),
+                        cb.min(price), cb.max(price), cb.sum(price))
+                .where(GrocerySpecifications.matching(criteria, null).toPredicate(g, query, cb))
+                .groupBy(category);
+
+        List<CategoryStatsResponse> stats = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long items = row.get(1, Long.class);
+            // avg() would come back as a double; dividing the sum keeps GroceryCategoryStats' rounding
+            stats.add(CategoryStatsResponse.builder()
+                    .category(row.get(0, String.class))
+                    .itemCount(items)
+                    .totalQuantity(row.get(2, Long.class))
+                    .inventoryValue(decimal(row.get(3)))
+                    .minPrice(row.get(4, BigDecimal.class))
+                    .maxPrice(row.get(5, BigDecimal.class))
+                    .avgPrice(decimal(row.get(6)).divide(BigDecimal.valueOf(items), 2, RoundingMode.HALF_UP))
+                    .build());
+        }
+        // sorted here: ORDER BY on the converted column would order by category id
+        stats.sort(Comparator.comparing(CategoryStatsResponse::getCategory));
+        return stats;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
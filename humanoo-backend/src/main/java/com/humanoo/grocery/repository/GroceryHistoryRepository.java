@@ -0,0 +1,23 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.dto.GroceryHistoryEntry;
+import com.humanoo.grocery.model.GroceryHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GroceryHistoryRepository extends JpaRepository<GroceryHistory, Long> {
+
+    // Oldest first within [from, to); served by the (grocery_id, changed_at) index.
+    @Query("SELECT new com.humanoo.grocery.dto.GroceryHistoryEntry(h.operation, h.price, h.quantity, h.version, "
+            + "h.changedAt) FROM GroceryHistory h WHERE h.groceryId = :groceryId "
+            + "AND h.changedAt >= :from AND h.changedAt < :to ORDER BY h.changedAt, h.id")
+    List<GroceryHistoryEntry> findHistory(@Param("groceryId") Long groceryId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, Pageable pageable);
+}
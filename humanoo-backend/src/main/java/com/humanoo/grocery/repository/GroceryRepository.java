@@ -1,17 +1,32 @@
 package com.humanoo.grocery.repository;
 
+import com.humanoo.grocery.dto.GroceryResponse;
 import com.humanoo.grocery.model.Grocery;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface GroceryRepository extends JpaRepository<Grocery, Long> {
+public interface GroceryRepository extends JpaRepository<Grocery, Long>, GroceryFilterRepository {
+
+    // Read-only list queries select straight into the response DTO through this
+    // constructor expression: no managed entities, no dirty-checking snapshots.
+    String AS_RESPONSE = "SELECT new com.humanoo.grocery.dto.GroceryResponse(g.id, g.name, g.description, "
+            + "g.price, g.quantity, g.reorderThreshold, g.category, g.unit, g.createdAt, g.updatedAt, g.version) "
+            + "FROM Grocery g ";
 
     List<Grocery> findByCategory(String category);
 
@@ -21,16 +36,32 @@ public interface GroceryRepository extends JpaRepository<Grocery, Long> {
 
     List<Grocery> findByCategoryAndPriceBetween(String category, BigDecimal minPrice, BigDecimal maxPrice);
 
+    // Delta sync: rows written after a change sequence, oldest write first, each as
+    // {changeSequence, GroceryResponse}; a range scan on idx_groceries_change_seq.
+    @Query("SELECT g.changeSequence, new com.humanoo.grocery.dto.GroceryResponse(g.id, g.name, g.description, "
+            + "g.price, g.quantity, g.reorderThreshold, g.category, g.unit, g.createdAt, g.updatedAt, g.version) "
+            + "FROM Grocery g WHERE g.changeSequence > :since ORDER BY g.changeSequence")
+    List<Object[]> findChangedSince(@Param("since") long since, Pageable pageable);
+
     @Query("SELECT g FROM Grocery g WHERE g.quantity < :threshold")
     List<Grocery> findLowStockGroceries(@Param("threshold") Integer threshold);
 
-    @Query("SELECT DISTINCT g.category FROM Grocery g ORDER BY g.category")
+    // Categories that still have items: one probe of idx_groceries_category_updated per
+    // row of the small categories table instead of a DISTINCT over every grocery.
+    // Native, because JPQL would order the converted column by id.
+    @Query(value = "SELECT c.name FROM categories c "
+            + "WHERE EXISTS (SELECT 1 FROM groceries g WHERE g.category_id = c.id) ORDER BY c.name",
+            nativeQuery = true)
     List<String> findAllCategories();
 
     boolean existsByNameIgnoreCase(String name);
 
     Optional<Grocery> findByNameIgnoreCase(String name);
 
+    // Set-based variant of existsByNameIgnoreCase; names must already be lower-cased.
+    @Query("SELECT LOWER(g.name) FROM Grocery g WHERE LOWER(g.name) IN :names")
+    List<String> findExistingLowerCaseNames(@Param("names") Collection<String> names);
+
     @Query("SELECT COUNT(g) FROM Grocery g WHERE g.category = :category")
     Long countByCategory(@Param("category") String category);
 
@@ -38,8 +69,51 @@ public interface GroceryRepository extends JpaRepository<Grocery, Long> {
 
     List<Grocery> findByCategoryOrderByUpdatedAtDesc(String category);
 
-    List<Grocery> findByPriceBetweenOrderByUpdatedAtDesc(BigDecimal minPrice, BigDecimal maxPrice);
-
-    List<Grocery> findByCategoryAndPriceBetweenOrderByUpdatedAtDesc(String category, BigDecimal minPrice,
-            BigDecimal maxPrice);
-}
\ No newline at end of file
+    @Query(AS_RESPONSE + "ORDER BY g.updatedAt DESC")
+    List<GroceryResponse> findAllResponses();
+
+    @Query(AS_RESPONSE + "WHERE g.category = :category ORDER BY g.updatedAt DESC")
+    List<GroceryResponse> findResponsesByCategory(@Param("category") String category);
+
+    @Query(AS_RESPONSE + "WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY g.updatedAt DESC")
+    List<GroceryResponse> findResponsesByName(@Param("name") String name, Pageable pageable);
+
+    @Query(AS_RESPONSE + "WHERE g.quantity < :threshold")
+    List<GroceryResponse> findLowStockResponses(@Param("threshold") Integer threshold);
+
+    // Keyset (cursor) pages ordered by (updatedAt, id) descending. Callers pass the
+    // last row of the previous page and a Pageable that only carries the page size.
+
+    @Query(AS_RESPONSE + "WHERE g.updatedAt <= :updatedAt "
+            + "AND (g.updatedAt < :updatedAt OR g.id < :id) "
+            + "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GroceryResponse> findPageAfter(@Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(AS_RESPONSE + "WHERE g.category = :category "
+            + "AND g.updatedAt <= :updatedAt AND (g.updatedAt < :updatedAt OR g.id < :id) "
+            + "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GroceryResponse> findPageByCategoryAfter(@Param("category") String category,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    @Query(AS_RESPONSE + "WHERE g.quantity < :threshold "
+            + "AND g.updatedAt <= :updatedAt AND (g.updatedAt < :updatedAt OR g.id < :id) "
+            + "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GroceryResponse> findLowStockPageAfter(@Param("threshold") Integer threshold,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id, Pageable pageable);
+
+    // Scrolls the whole table through a JDBC cursor instead of materializing a List.
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(AS_RESPONSE + "ORDER BY g.id")
+    Stream<GroceryResponse> streamAllResponses();
+
+    // Single conditional UPDATE: no entity load, no read-modify-write window. Returns 0
+    // when the row does not exist or the stock would go negative or past INTEGER; the
+    // check is done in BIGINT so it cannot overflow itself.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Grocery g SET g.quantity = g.quantity + :delta, g.version = g.version + 1, "
+            + "g.updatedAt = :now WHERE g.id = :id "
+            + "AND CAST(g.quantity AS Long) + :delta BETWEEN 0 AND " + Integer.MAX_VALUE)
+    int adjustQuantity(@Param("id") Long id, @Param("delta") int delta, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,100 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.model.Grocery;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Builds the single statement behind /filter from a {@link GroceryFilterCriteria}.
+ * Each predicate lines up with an index declared on {@link Grocery}; the
+ * GroceryQueryPlanTest checks that the common combinations stay off table scans.
+ */
+public final class GrocerySpecifications {
+
+    public static final String DEFAULT_SORT = "updatedAt";
+
+    private static final Set<String> SORTABLE = Set.of("updatedAt", "price", "quantity", "name");
+
+    private GrocerySpecifications() {
+    }
+
+    /**
+     * @param after keyset position for cursor paging, only valid with the default sort; may be null
+     */
+    public static Specification<Grocery> matching(GroceryFilterCriteria criteria, GroceryCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (criteria.getCategories() != null && !criteria.getCategories().isEmpty()) {
+                predicates.add(criteria.getCategories().size() == 1
+                        ? cb.equal(root.get("category"), criteria.getCategories().get(0))
+                        : root.get("category").in(criteria.getCategories()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getStockBelow() != null) {
+                predicates.add(cb.lessThan(root.get("quantity"), criteria.getStockBelow()));
+            }
+            if (criteria.getName() != null && !criteria.getName().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("name")),
+                        "%" + criteria.getName().trim().toLowerCase(Locale.ROOT) + "%"));
+            }
+            if (after != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("updatedAt"), after.getUpdatedAt()));
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("updatedAt"), after.getUpdatedAt()),
+                        cb.lessThan(root.get("id"), after.getId())));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Always ends with id so the order (and therefore paging) is deterministic.
+    public static Sort sortOf(GroceryFilterCriteria criteria) {
+        String field = sortField(criteria);
+        Sort.Direction direction = criteria.isAscending() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, field).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * The in-memory counterpart of {@link #sortOf}, for results that are served
+     * without going to the database.
+     */
+    public static Comparator<GroceryResponse> comparatorOf(GroceryFilterCriteria criteria) {
+        Comparator<GroceryResponse> comparator = switch (sortField(criteria)) {
+            case "price" -> Comparator.comparing(GroceryResponse::getPrice, nullsFirst());
+            case "quantity" -> Comparator.comparing(GroceryResponse::getQuantity, nullsFirst());
+            case "name" -> Comparator.comparing(GroceryResponse::getName, nullsFirst());
+            default -> Comparator.comparing(GroceryResponse::getUpdatedAt, nullsFirst());
+        };
+        comparator = comparator.thenComparing(GroceryResponse::getId);
+        return criteria.isAscending() ? comparator : comparator.reversed();
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<T> nullsFirst() {
+        return Comparator.nullsFirst(Comparator.naturalOrder());
+    }
+
+    public static String sortField(GroceryFilterCriteria criteria) {
+        String field = criteria.getSortBy() == null ? DEFAULT_SORT : criteria.getSortBy();
+        if (!SORTABLE.contains(field)) {
+            throw new IllegalArgumentException("Cannot sort by '" + field + "', use one of " + SORTABLE);
+        }
+        return field;
+    }
+}
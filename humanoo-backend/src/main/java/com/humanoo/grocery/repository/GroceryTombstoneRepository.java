@@ -0,0 +1,32 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.model.GroceryTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GroceryTombstoneRepository extends JpaRepository<GroceryTombstone, Long> {
+
+    // Native so change_seq is left to the column default; joins the caller's transaction.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO grocery_tombstones (grocery_id, deleted_at) VALUES (:groceryId, :deletedAt)",
+            nativeQuery = true)
+    void record(@Param("groceryId") Long groceryId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT t FROM GroceryTombstone t WHERE t.changeSequence > :since ORDER BY t.changeSequence")
+    List<GroceryTombstone> findChangedSince(@Param("since") long since, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GroceryTombstone t WHERE t.deletedAt < :cutoff")
+    int purgeDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
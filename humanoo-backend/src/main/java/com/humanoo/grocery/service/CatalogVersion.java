@@ -0,0 +1,35 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide version, bumped after every committed change. List endpoints use it
+ * as their ETag, so a poll with a matching If-None-Match can answer 304 without
+ * querying or serializing anything. The boot id keeps tags from a previous run
+ * (with a different in-memory counter) from ever matching. The tag is weak: the
+ * JSON may be gzipped on the way out, and Tomcat's compression skips any response
+ * with a strong ETag.
+ */
+@Component
+public class CatalogVersion {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String eTag() {
+        return "W/\"catalog-" + bootId + "-" + version.get() + "\"";
+    }
+}
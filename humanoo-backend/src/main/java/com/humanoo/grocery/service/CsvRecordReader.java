@@ -0,0 +1,108 @@
+package com.humanoo.grocery.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time, so an upload is never held in memory.
+ * Quoted fields may contain commas, doubled quotes and line breaks. Splitting a
+ * record into fields is left to {@link #split(String)}, which can run on another
+ * thread.
+ */
+class CsvRecordReader implements Closeable {
+
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader reader;
+    private long line;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = new BufferedReader(reader, 64 * 1024);
+    }
+
+    /** The next record, or null at the end of the input. Blank lines are skipped. */
+    String next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isEmpty());
+        if (line == 1 && text.charAt(0) == BOM) {
+            text = text.substring(1);
+        }
+        recordLine = line;
+
+        // an odd number of quotes so far means a quoted field continues on the next line
+        boolean open = (countQuotes(text) & 1) == 1;
+        if (!open) {
+            return text;
+        }
+        StringBuilder record = new StringBuilder(text);
+        while (open) {
+            String more = reader.readLine();
+            if (more == null) {
+                throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+            }
+            line++;
+            record.append('\n').append(more);
+            open ^= (countQuotes(more) & 1) == 1;
+        }
+        return record.toString();
+    }
+
+    /** Line the last record returned by {@link #next()} started on. */
+    long recordLine() {
+        return recordLine;
+    }
+
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static int countQuotes(String text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
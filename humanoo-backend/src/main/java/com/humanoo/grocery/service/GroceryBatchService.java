@@ -0,0 +1,207 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.BatchOperationType;
+import com.humanoo.grocery.dto.GroceryBatchOperation;
+import com.humanoo.grocery.dto.GroceryBatchRequest;
+import com.humanoo.grocery.dto.GroceryBatchResponse;
+import com.humanoo.grocery.dto.GroceryBatchResult;
+import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a mixed list of create/update/delete operations in one transaction.
+ * Name uniqueness is checked with a single set-based query and the target rows are
+ * loaded with one findAllById, so the only per-item SQL left is the batched
+ * INSERT/UPDATE/DELETE statements Hibernate emits at flush.
+ * Invalid items are reported in their result and skipped, the rest still apply.
+ */
+@Service
+public class GroceryBatchService {
+
+    private final GroceryRepository groceryRepository;
+    private final GroceryService groceryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+
+    @Autowired
+    public GroceryBatchService(GroceryRepository groceryRepository, GroceryService groceryService,
+            ApplicationEventPublisher eventPublisher, Validator validator) {
+        this.groceryRepository = groceryRepository;
+        this.groceryService = groceryService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+    }
+
+    @Transactional
+    public GroceryBatchResponse applyBatch(GroceryBatchRequest request) {
+        List<GroceryBatchOperation> operations = request.getOperations();
+
+        Set<String> names = requestedNames(operations);
+        Set<String> takenNames = names.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(groceryRepository.findExistingLowerCaseNames(names));
+        Map<Long, Grocery> targets = groceryRepository.findAllById(targetIds(operations))
+                .stream()
+                .collect(Collectors.toMap(Grocery::getId, Function.identity()));
+
+        List<GroceryBatchResult> results = new ArrayList<>(operations.size());
+        // entities whose response is built after the flush, keyed by result index
+        Map<Integer, Grocery> written = new HashMap<>();
+        // state before the update, carried in the change event
+        Map<Integer, GroceryResponse> previousStates = new HashMap<>();
+
+        for (int index = 0; index < operations.size(); index++) {
+            GroceryBatchOperation operation = operations.get(index);
+            GroceryBatchResult result = GroceryBatchResult.builder()
+                    .index(index)
+                    .type(operation.getType())
+                    .id(operation.getId())
+                    .build();
+            try {
+                switch (operation.getType()) {
+                    case CREATE -> written.put(index, create(operation, takenNames));
+                    case UPDATE -> {
+                        Grocery target = target(operation, targets);
+                        previousStates.put(index, groceryService.mapToResponse(target));
+                        written.put(index, update(operation, target, takenNames));
+                    }
+                    case DELETE -> delete(operation, targets, takenNames);
+                }
+                result.setSuccess(true);
+            } catch (IllegalArgumentException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+
+        // sends the queued statements as JDBC batches and fires @PrePersist/@PreUpdate
+        groceryRepository.flush();
+
+        written.forEach((index, grocery) -> {
+            GroceryBatchResult result = results.get(index);
+            result.setId(grocery.getId());
+            result.setGrocery(groceryService.mapToResponse(grocery));
+            if (result.getType() == BatchOperationType.CREATE) {
+                eventPublisher.publishEvent(GroceryChangedEvent.created(result.getGrocery()));
+            } else if (targets.containsKey(grocery.getId())) {
+                // skipped when a later operation in the batch deleted the item
+                eventPublisher.publishEvent(GroceryChangedEvent.updated(previousStates.get(index),
+                        result.getGrocery()));
+            }
+        });
+
+        int succeeded = (int) results.stream().filter(GroceryBatchResult::isSuccess).count();
+        return GroceryBatchResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    private Grocery create(GroceryBatchOperation operation, Set<String> takenNames) {
+        GroceryCreateRequest create = operation.getCreate();
+        if (create == null) {
+            throw new IllegalArgumentException("Create payload is required");
+        }
+        validate(create);
+        claimName(create.getName(), takenNames);
+        return groceryRepository.save(groceryService.toEntity(create));
+    }
+
+    private Grocery update(GroceryBatchOperation operation, Grocery grocery, Set<String> takenNames) {
+        GroceryUpdateRequest update = operation.getUpdate();
+        if (update == null) {
+            throw new IllegalArgumentException("Update payload is required");
+        }
+        validate(update);
+        if (update.getName() != null
+                && !update.getName().toLowerCase(Locale.ROOT).equals(grocery.getName().toLowerCase(Locale.ROOT))) {
+            claimName(update.getName(), takenNames);
+            takenNames.remove(grocery.getName().toLowerCase(Locale.ROOT));
+        }
+        // managed entity: the UPDATE is issued by dirty checking at flush
+        groceryService.applyUpdate(grocery, update);
+        return grocery;
+    }
+
+    private void delete(GroceryBatchOperation operation, Map<Long, Grocery> targets, Set<String> takenNames) {
+        Grocery grocery = target(operation, targets);
+        targets.remove(grocery.getId());
+        takenNames.remove(grocery.getName().toLowerCase(Locale.ROOT));
+        groceryRepository.delete(grocery);
+        eventPublisher.publishEvent(GroceryChangedEvent.deleted(grocery.getId(),
+                groceryService.mapToResponse(grocery)));
+    }
+
+    private Grocery target(GroceryBatchOperation operation, Map<Long, Grocery> targets) {
+        if (operation.getId() == null) {
+            throw new IllegalArgumentException("Id is required for " + operation.getType());
+        }
+        Grocery grocery = targets.get(operation.getId());
+        if (grocery == null) {
+            throw new IllegalArgumentException("Grocery not found with id: " + operation.getId());
+        }
+        return grocery;
+    }
+
+    private void claimName(String name, Set<String> takenNames) {
+        if (!takenNames.add(name.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("Grocery with name '" + name + "' already exists");
+        }
+    }
+
+    private void validate(Object payload) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(payload);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(describe(violations));
+        }
+    }
+
+    // "field: message" pairs in a stable order; shared with the CSV import
+    static String describe(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private Set<String> requestedNames(List<GroceryBatchOperation> operations) {
+        Set<String> names = new HashSet<>();
+        for (GroceryBatchOperation operation : operations) {
+            if (operation.getCreate() != null && operation.getCreate().getName() != null) {
+                names.add(operation.getCreate().getName().toLowerCase(Locale.ROOT));
+            }
+            if (operation.getUpdate() != null && operation.getUpdate().getName() != null) {
+                names.add(operation.getUpdate().getName().toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+
+    private Set<Long> targetIds(List<GroceryBatchOperation> operations) {
+        return operations.stream()
+                .map(GroceryBatchOperation::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,128 @@
+package com.humanoo.grocery.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.humanoo.grocery.dto.CacheStatsResponse;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, TTL-evicted read-through cache for the hot catalog reads: single items,
+ * per-category lists and the list of category names. Committed writes arrive as
+ * {@link GroceryChangedEvent}s so only the affected entries are dropped. A changed
+ * item is cached unless the cached copy already has the same or a later version.
+ * Cached values are shared, so lists are stored unmodifiable.
+ */
+@Component
+public class GroceryCache {
+
+    private static final String CATEGORIES_KEY = "categories";
+
+    private final Cache<Long, GroceryResponse> items;
+    private final Cache<String, List<GroceryResponse>> categoryLists;
+    private final Cache<String, List<String>> categories;
+
+    @Autowired
+    public GroceryCache(@Value("${grocery.cache.max-items:10000}") long maxItems,
+            @Value("${grocery.cache.max-category-lists:200}") long maxCategoryLists,
+            @Value("${grocery.cache.ttl:5m}") Duration ttl) {
+        this.items = Caffeine.newBuilder().maximumSize(maxItems).expireAfterWrite(ttl).recordStats().build();
+        this.categoryLists = Caffeine.newBuilder().maximumSize(maxCategoryLists).expireAfterWrite(ttl)
+                .recordStats().build();
+        this.categories = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(ttl).recordStats().build();
+    }
+
+    public Optional<GroceryResponse> getItem(Long id, Function<Long, Optional<GroceryResponse>> loader) {
+        // misses for unknown ids are not cached, the loader returns null for them
+        return Optional.ofNullable(items.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public List<GroceryResponse> getCategoryList(String category, Supplier<List<GroceryResponse>> loader) {
+        return categoryLists.get(category, key -> List.copyOf(loader.get()));
+    }
+
+    public List<String> getCategories(Supplier<List<String>> loader) {
+        return categories.get(CATEGORIES_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    // Runs after commit: evicting earlier would let a concurrent reader re-cache the old row.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED -> onCreated(event.getAfter());
+            case UPDATED -> onUpdated(event.getBefore().getCategory(), event.getAfter());
+            case DELETED -> onDeleted(event.getId(), event.getBefore());
+        }
+    }
+
+    private void onCreated(GroceryResponse created) {
+        putNewest(created);
+        categoryLists.invalidate(created.getCategory());
+        evictCategoriesUnlessKnown(created.getCategory());
+    }
+
+    private void onUpdated(String previousCategory, GroceryResponse updated) {
+        putNewest(updated);
+        categoryLists.invalidate(previousCategory);
+        categoryLists.invalidate(updated.getCategory());
+        if (!updated.getCategory().equals(previousCategory)) {
+            // the old category may have lost its last item
+            categories.invalidateAll();
+        }
+    }
+
+    private void onDeleted(Long id, GroceryResponse before) {
+        GroceryResponse cached = items.asMap().remove(id);
+        GroceryResponse known = before != null ? before : cached;
+        if (known != null) {
+            categoryLists.invalidate(known.getCategory());
+        } else {
+            // category unknown: drop only the lists that contain the deleted item
+            categoryLists.asMap().values()
+                    .removeIf(list -> list.stream().anyMatch(grocery -> id.equals(grocery.getId())));
+        }
+        categories.invalidateAll();
+    }
+
+    // The after-commit events of concurrent updates can arrive out of order; an older
+    // row must not replace a newer one until the TTL expires.
+    private void putNewest(GroceryResponse grocery) {
+        items.asMap().merge(grocery.getId(), grocery, (cached, incoming) -> cached.getVersion() != null
+                && incoming.getVersion() != null && cached.getVersion() >= incoming.getVersion() ? cached : incoming);
+    }
+
+    public List<CacheStatsResponse> getStats() {
+        return List.of(toStats("items", items), toStats("categoryLists", categoryLists),
+                toStats("categories", categories));
+    }
+
+    private void evictCategoriesUnlessKnown(String category) {
+        List<String> known = categories.getIfPresent(CATEGORIES_KEY);
+        if (known != null && !known.contains(category)) {
+            categories.invalidateAll();
+        }
+    }
+
+    private CacheStatsResponse toStats(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+}
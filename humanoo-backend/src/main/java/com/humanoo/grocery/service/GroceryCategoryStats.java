@@ -0,0 +1,144 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-category aggregates (item count, total quantity, inventory value and price
+ * min/max/avg) kept current from committed {@link GroceryChangedEvent}s, so reading
+ * them is O(categories) and never touches the groceries table. Money is tracked
+ * in cents; each category keeps a price histogram so min/max survive removals.
+ *
+ * <p>The aggregates are seeded from the startup scan of
+ * {@link GroceryService#rebuildIndexes()}. A change committed while that scan runs
+ * may or may not be in the rows read, so between {@link #beginRebuild()} and
+ * {@link #rebuild} the latest copy of every changed row is kept and merged into the
+ * scan (see {@link RecentChanges}) instead of being applied as a delta twice.
+ */
+@Component
+public class GroceryCategoryStats {
+
+    private final Map<String, CategoryAggregate> aggregates = new TreeMap<>();
+
+    // guarded by this; only set while a rebuild is in progress
+    private RecentChanges recentChanges;
+    private Map<Long, GroceryResponse> changedDuringRebuild;
+
+    /** Call before reading the rows for {@link #rebuild}. */
+    public synchronized void beginRebuild() {
+        recentChanges = new RecentChanges();
+        recentChanges.beginRebuild();
+        changedDuringRebuild = new HashMap<>();
+    }
+
+    /**
+     * Replaces the aggregates with those of the given rows. Changes applied since
+     * {@link #beginRebuild()} replace the rows read wherever they are newer.
+     */
+    public synchronized void rebuild(Collection<GroceryResponse> groceries) {
+        List<GroceryResponse> rows = recentChanges != null
+                ? recentChanges.merge(groceries, changedDuringRebuild::get)
+                : new ArrayList<>(groceries);
+        recentChanges = null;
+        changedDuringRebuild = null;
+        aggregates.clear();
+        rows.forEach(this::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onGroceryChanged(GroceryChangedEvent event) {
+        if (recentChanges != null) {
+            GroceryResponse after = event.getAfter();
+            if (after == null) {
+                recentChanges.deleted(event.getId());
+                changedDuringRebuild.remove(event.getId());
+            } else if (recentChanges.isStale(after, changedDuringRebuild.get(event.getId()))) {
+                return;
+            } else {
+                recentChanges.updated(event.getId(), after.getVersion());
+                changedDuringRebuild.put(event.getId(), after);
+            }
+        }
+        if (event.getBefore() != null) {
+            remove(event.getBefore());
+        }
+        if (event.getAfter() != null) {
+            add(event.getAfter());
+        }
+    }
+
+    public synchronized List<CategoryStatsResponse> getStats() {
+        List<CategoryStatsResponse> stats = new ArrayList<>(aggregates.size());
+        aggregates.forEach((category, aggregate) -> stats.add(aggregate.toResponse(category)));
+        return stats;
+    }
+
+    private void add(GroceryResponse grocery) {
+        aggregates.computeIfAbsent(grocery.getCategory(), key -> new CategoryAggregate())
+                .add(toCents(grocery.getPrice()), 1, grocery.getQuantity());
+    }
+
+    private void remove(GroceryResponse grocery) {
+        CategoryAggregate aggregate = aggregates.get(grocery.getCategory());
+        if (aggregate != null) {
+            aggregate.add(toCents(grocery.getPrice()), -1, -grocery.getQuantity());
+            if (aggregate.itemCount <= 0) {
+                aggregates.remove(grocery.getCategory());
+            }
+        }
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static class CategoryAggregate {
+        private long itemCount;
+        private long totalQuantity;
+        private long inventoryValueCents;
+        private long priceSumCents;
+        // price in cents -> number of items at that price
+        private final TreeMap<Long, Long> priceHistogram = new TreeMap<>();
+
+        // items and quantity are negative when removing
+        void add(long priceCents, long items, long quantity) {
+            itemCount += items;
+            totalQuantity += quantity;
+            inventoryValueCents += priceCents * quantity;
+            priceSumCents += priceCents * items;
+            priceHistogram.merge(priceCents, items, Long::sum);
+            if (priceHistogram.get(priceCents) <= 0) {
+                priceHistogram.remove(priceCents);
+            }
+        }
+
+        CategoryStatsResponse toResponse(String category) {
+            return CategoryStatsResponse.builder()
+                    .category(category)
+                    .itemCount(itemCount)
+                    .totalQuantity(totalQuantity)
+                    .inventoryValue(fromCents(inventoryValueCents))
+                    .minPrice(priceHistogram.isEmpty() ? null : fromCents(priceHistogram.firstKey()))
+                    .maxPrice(priceHistogram.isEmpty() ? null : fromCents(priceHistogram.lastKey()))
+                    .avgPrice(itemCount == 0 ? null
+                            : fromCents(priceSumCents).divide(BigDecimal.valueOf(itemCount), 2, RoundingMode.HALF_UP))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.humanoo.grocery.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanoo.grocery.dto.GroceryChangeNotification;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Server-Sent Events feed of committed grocery changes (GET /api/groceries/changes).
+ *
+ * <p>Subscribers are async {@link SseEmitter}s, so an idle subscriber holds no
+ * thread. Each one gets a bounded queue that a small shared pool drains; a
+ * subscriber whose queue fills up is disconnected rather than buffered without
+ * limit, and resumes through {@code Last-Event-ID} when the browser reconnects.
+ * The last {@code buffer-size} events are kept in a ring buffer for that replay;
+ * a client that has fallen further behind (or comes from a previous boot) gets a
+ * {@value #RESET_EVENT} event and should reload the list.
+ *
+ * <p>{@link SseEmitter#send} blocks while the client's TCP window is full, so a
+ * send that takes longer than {@code send-timeout} is written off: the subscriber
+ * is disconnected and the pool gets a thread in place of the one stuck in the
+ * send until the container's write timeout fails it. A few stalled clients
+ * therefore cannot hold up delivery to everyone else.
+ *
+ * <p>Low-stock alerts from {@link LowStockMonitor} travel on the same stream as
+ * {@value #LOW_STOCK_EVENT} events and share its ids and replay.
+ */
+@Component
+public class GroceryChangeFeed {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+    public static final String LOW_STOCK_EVENT = "low-stock";
+
+    private static final int SENDER_THREADS = 4;
+
+    // Subscriber.sendStarted when no send is running, and once the watchdog has written one off
+    private static final long NOT_SENDING = Long.MIN_VALUE;
+    private static final long WRITTEN_OFF = Long.MAX_VALUE;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final ObjectMapper objectMapper;
+    private final int subscriberQueueSize;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+
+    // guarded by this
+    private final BufferedChange[] buffer;
+    private long nextSequence = 1;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeat;
+    private final Set<DataWithMediaType> heartbeatFrame = SseEmitter.event().comment("keep-alive").build();
+
+    @Autowired
+    public GroceryChangeFeed(ObjectMapper objectMapper,
+            @Value("${grocery.changes.buffer-size:1024}") int bufferSize,
+            @Value("${grocery.changes.subscriber-queue:256}") int subscriberQueueSize,
+            @Value("${grocery.changes.timeout:30m}") Duration timeout,
+            @Value("${grocery.changes.heartbeat:20s}") Duration heartbeatInterval,
+            @Value("${grocery.changes.send-timeout:10s}") Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.buffer = new BufferedChange[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // fixed size apart from the replacements for written-off sends, see resizeSender
+        this.sender = new ThreadPoolExecutor(SENDER_THREADS, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("grocery-changes-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(daemonThreads("grocery-changes-heartbeat-"));
+        // keeps proxies from closing idle streams and finds dead connections
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        long checkMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        this.heartbeat.scheduleAtFixedRate(this::disconnectStalledSends, checkMillis, checkMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param lastEventId value of the Last-Event-ID header, null for a fresh subscription
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, subscriberQueueSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+
+        // replay and registration under the same lock as publishing, so nothing
+        // committed in between is lost or delivered twice
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<BufferedChange> missed = changesAfter(lastEventId);
+                if (missed == null || missed.size() > subscriberQueueSize) {
+                    subscriber.queue.offer(resetFrame());
+                } else {
+                    missed.forEach(change -> subscriber.queue.offer(change.frame()));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        scheduleDrain(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        GroceryChangeNotification notification = toNotification(event);
+        publish(CHANGE_EVENT, notification, toJson(notification));
+    }
+
+    // published by LowStockMonitor, itself from an after-commit listener
+    @EventListener
+    public void onLowStockAlert(LowStockAlert alert) {
+        publish(LOW_STOCK_EVENT, null, toJson(alert));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    String eventId(long sequence) {
+        return bootId + "-" + sequence;
+    }
+
+    /**
+     * Buffered changes newer than {@code lastEventId}, oldest first, or null when the
+     * id is unknown or already evicted and the client has to start over.
+     */
+    synchronized List<BufferedChange> changesAfter(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !bootId.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = Math.max(1, nextSequence - buffer.length);
+        if (lastSequence < oldest - 1 || lastSequence >= nextSequence) {
+            return null;
+        }
+        List<BufferedChange> missed = new ArrayList<>();
+        for (long sequence = lastSequence + 1; sequence < nextSequence; sequence++) {
+            missed.add(buffer[(int) (sequence % buffer.length)]);
+        }
+        return missed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        // completes the emitters on the sender threads, then lets those finish
+        subscribers.forEach(this::close);
+        sender.shutdown();
+    }
+
+    static GroceryChangeNotification toNotification(GroceryChangedEvent event) {
+        GroceryResponse before = event.getBefore();
+        GroceryResponse after = event.getAfter();
+        return GroceryChangeNotification.builder()
+                .id(event.getId())
+                .operation(event.getType())
+                .changedFields(changedFields(before, after))
+                .version(after != null ? after.getVersion() : before != null ? before.getVersion() : null)
+                .build();
+    }
+
+    private static List<String> changedFields(GroceryResponse before, GroceryResponse after) {
+        List<String> fields = new ArrayList<>();
+        if (after == null) {
+            return fields;
+        }
+        addIfChanged(fields, "name", before, after, GroceryResponse::getName);
+        addIfChanged(fields, "description", before, after, GroceryResponse::getDescription);
+        if (before == null ? after.getPrice() != null : !samePrice(before.getPrice(), after.getPrice())) {
+            fields.add("price");
+        }
+        addIfChanged(fields, "quantity", before, after, GroceryResponse::getQuantity);
+        addIfChanged(fields, "reorderThreshold", before, after, GroceryResponse::getReorderThreshold);
+        addIfChanged(fields, "category", before, after, GroceryResponse::getCategory);
+        addIfChanged(fields, "unit", before, after, GroceryResponse::getUnit);
+        return fields;
+    }
+
+    private static void addIfChanged(List<String> fields, String name, GroceryResponse before,
+            GroceryResponse after, Function<GroceryResponse, Object> property) {
+        Object value = property.apply(after);
+        if (before == null ? value != null : !Objects.equals(property.apply(before), value)) {
+            fields.add(name);
+        }
+    }
+
+    // 2.5 and 2.50 are the same price
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private synchronized void publish(String name, GroceryChangeNotification notification, String json) {
+        long sequence = nextSequence++;
+        BufferedChange change = new BufferedChange(sequence, notification, SseEmitter.event()
+                .id(eventId(sequence))
+                .name(name)
+                .data(json)
+                .build());
+        buffer[(int) (sequence % buffer.length)] = change;
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, change.frame());
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            // slow consumer: drop it, the browser reconnects with Last-Event-ID
+            close(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Set<DataWithMediaType> frame;
+            while (!subscriber.closed && (frame = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, frame)) {
+                    // client went away or the emitter already completed; draining stays
+                    // set, so nothing is scheduled for it again
+                    subscribers.remove(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            if (subscriber.closed) {
+                // here rather than in close(): complete() waits for a send in progress
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+                return;
+            }
+            subscriber.draining.set(false);
+            // an event may have been queued, or the subscriber closed, between the
+            // checks above and the reset
+            if ((subscriber.queue.isEmpty() && !subscriber.closed)
+                    || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, Set<DataWithMediaType> frame) {
+        long started = System.nanoTime();
+        subscriber.sendStarted.set(started);
+        try {
+            subscriber.emitter.send(frame);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        } finally {
+            if (!subscriber.sendStarted.compareAndSet(started, NOT_SENDING)) {
+                // written off by disconnectStalledSends, whose replacement thread can go now
+                resizeSender(-1);
+            }
+        }
+    }
+
+    // Runs on the heartbeat thread.
+    private void disconnectStalledSends() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStarted.get();
+            if (started != NOT_SENDING && now - started > sendTimeoutNanos
+                    && subscriber.sendStarted.compareAndSet(started, WRITTEN_OFF)) {
+                close(subscriber);
+                resizeSender(1);
+            }
+        }
+    }
+
+    private void resizeSender(int delta) {
+        synchronized (sender) {
+            sender.setCorePoolSize(sender.getCorePoolSize() + delta);
+        }
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, heartbeatFrame);
+        }
+    }
+
+    // Never blocks: the emitter is completed by the drain once any send in progress returns.
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.closed = true;
+            subscriber.queue.clear();
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private Set<DataWithMediaType> resetFrame() {
+        return SseEmitter.event().name(RESET_EVENT).data("{}").build();
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + payload.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // notification is null for low-stock alerts
+    record BufferedChange(long sequence, GroceryChangeNotification notification, Set<DataWithMediaType> frame) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        // true while a sender thread owns this subscriber
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the send in progress started
+        private final AtomicLong sendStarted = new AtomicLong(NOT_SENDING);
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, int queueSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+        }
+    }
+}
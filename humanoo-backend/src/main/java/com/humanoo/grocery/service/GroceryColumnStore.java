@@ -0,0 +1,641 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.repository.GrocerySpecifications;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * Optional columnar copy of the groceries table for scan-heavy reads: /filter,
+ * /price-range, /low-stock with an explicit threshold and filtered /stats. Off
+ * unless {@code grocery.columnar.enabled} is set.
+ *
+ * <p>Every attribute a query filters, sorts or aggregates on is a primitive array
+ * indexed by slot: price in cents as a long, quantity as an int, category as an id
+ * into a dictionary and updatedAt as epoch microseconds. A query is compiled once
+ * into primitive bounds and then scanned on a fork-join pool, one leaf task per
+ * {@code leafSize} slots; the per-row loop neither boxes nor allocates. Only the
+ * matching rows are turned back into their (shared) GroceryResponse objects.
+ *
+ * <p>Kept current from committed {@link GroceryChangedEvent}s, reusing the slots of
+ * deleted rows, and dropping changes older than the stored copy (see
+ * {@link RecentChanges}). Scans hold the read lock and writes the write lock, so a
+ * scan never sees a half-applied update.
+ */
+@Component
+public class GroceryColumnStore {
+
+    static final int DEFAULT_LEAF_SIZE = 1 << 16;
+
+    // top-N queries above this size collect every match and sort instead of keeping a heap
+    private static final int MAX_HEAP_SIZE = 10_000;
+
+    private final boolean enabled;
+    private final int leafSize;
+    private final ForkJoinPool pool;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // guarded by lock
+    private Columns columns = new Columns(0);
+    private volatile boolean ready;
+
+    // guarded by this
+    private final RecentChanges recentChanges = new RecentChanges();
+
+    @Autowired
+    public GroceryColumnStore(@Value("${grocery.columnar.enabled:false}") boolean enabled,
+            @Value("${grocery.columnar.parallelism:0}") int parallelism) {
+        this(enabled, parallelism, DEFAULT_LEAF_SIZE);
+    }
+
+    GroceryColumnStore(boolean enabled, int parallelism, int leafSize) {
+        this.enabled = enabled;
+        this.leafSize = leafSize;
+        this.pool = enabled ? newScanPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors())
+                : null;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The in-memory counterpart of GroceryFilterRepository.findMatching: rows matching
+     * every criterion except the name, in the criteria's sort order.
+     *
+     * @param after keyset position for the next page, only valid with the default sort; may be null
+     * @param limit maximum rows, or null for all of them
+     */
+    public List<GroceryResponse> filter(GroceryFilterCriteria criteria, GroceryCursor after, Integer limit) {
+        SortKey sortKey = SortKey.of(GrocerySpecifications.sortField(criteria));
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            Scan scan = compile(c, criteria, after);
+            if (scan == null || limit != null && limit < 1) {
+                return new ArrayList<>();
+            }
+            if (limit == null || limit > MAX_HEAP_SIZE || sortKey == SortKey.NAME) {
+                Slots matches = run(c, (from, to) -> {
+                    Slots leaf = new Slots(Math.min(to - from, 1024));
+                    for (int slot = from; slot < to; slot++) {
+                        if (scan.matches(c, slot)) {
+                            leaf.add(slot);
+                        }
+                    }
+                    return leaf;
+                }, Slots::append);
+                List<GroceryResponse> rows = new ArrayList<>(matches.size);
+                for (int i = 0; i < matches.size; i++) {
+                    rows.add(c.rows[matches.slots[i]]);
+                }
+                rows.sort(GrocerySpecifications.comparatorOf(criteria));
+                return limit != null && rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+            }
+            boolean ascending = criteria.isAscending();
+            TopSlots top = run(c, (from, to) -> {
+                TopSlots leaf = new TopSlots(c, sortKey, ascending, limit);
+                for (int slot = from; slot < to; slot++) {
+                    if (scan.matches(c, slot)) {
+                        leaf.offer(slot);
+                    }
+                }
+                return leaf;
+            }, TopSlots::merge);
+            return top.drain();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per-category item count, quantity, inventory value and price min/max/avg over
+     * the rows matching every criterion except the name and the sort, by category.
+     */
+    public List<CategoryStatsResponse> aggregate(GroceryFilterCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            Scan scan = compile(c, criteria, null);
+            if (scan == null) {
+                return new ArrayList<>();
+            }
+            int categories = c.categoryNames.size();
+            Totals totals = run(c, (from, to) -> {
+                Totals leaf = new Totals(categories);
+                for (int slot = from; slot < to; slot++) {
+                    if (scan.matches(c, slot)) {
+                        leaf.add(c.categoryIds[slot], c.priceCents[slot], c.quantities[slot]);
+                    }
+                }
+                return leaf;
+            }, Totals::merge);
+            return totals.toResponses(c.categoryNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getType()) {
+            case CREATED, UPDATED -> put(event.getAfter());
+            case DELETED -> remove(event.getId());
+        }
+    }
+
+    // Writers are synchronized as well, which also guards recentChanges and lets them
+    // read the columns without the read lock.
+
+    public synchronized void put(GroceryResponse grocery) {
+        if (recentChanges.isStale(grocery, columns.get(grocery.getId()))) {
+            return;
+        }
+        recentChanges.updated(grocery.getId(), grocery.getVersion());
+        lock.writeLock().lock();
+        try {
+            columns.put(grocery);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        recentChanges.deleted(id);
+        lock.writeLock().lock();
+        try {
+            columns.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Call before reading the rows for {@link #rebuild}. */
+    public synchronized void beginRebuild() {
+        recentChanges.beginRebuild();
+    }
+
+    /**
+     * Replaces every column with the given rows; scans keep using the old ones
+     * meanwhile. Changes applied since {@link #beginRebuild()} are kept wherever they
+     * are newer than the rows read.
+     */
+    public synchronized void rebuild(Collection<GroceryResponse> groceries) {
+        if (!enabled) {
+            return;
+        }
+        Columns live = columns;
+        List<GroceryResponse> rows = recentChanges.merge(groceries, live::get);
+        Columns rebuilt = new Columns(rows.size());
+        for (GroceryResponse grocery : rows) {
+            rebuilt.put(grocery);
+        }
+        lock.writeLock().lock();
+        try {
+            columns = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static ForkJoinPool newScanPool(int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("grocery-column-scan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    // Null timestamps sort first, as in GrocerySpecifications.comparatorOf.
+    static long epochMicros(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    // Small tables are scanned on the calling thread; forking would cost more than it saves.
+    private <R> R run(Columns c, Leaf<R> leaf, BinaryOperator<R> combine) {
+        if (c.size <= leafSize) {
+            return leaf.scan(0, c.size);
+        }
+        return pool.invoke(new ScanTask<>(0, c.size, leafSize, leaf, combine));
+    }
+
+    // Null when the criteria name only categories that do not exist, so nothing can match.
+    private static Scan compile(Columns c, GroceryFilterCriteria criteria, GroceryCursor after) {
+        boolean[] categories = null;
+        if (criteria.getCategories() != null && !criteria.getCategories().isEmpty()) {
+            categories = new boolean[c.categoryNames.size()];
+            boolean known = false;
+            for (String category : criteria.getCategories()) {
+                Integer id = c.categoryIdByName.get(category);
+                if (id != null) {
+                    categories[id] = true;
+                    known = true;
+                }
+            }
+            if (!known) {
+                return null;
+            }
+        }
+        return new Scan(categories,
+                criteria.getMinPrice() == null ? Long.MIN_VALUE
+                        : GroceryPriceIndex.toCents(criteria.getMinPrice(), RoundingMode.CEILING),
+                criteria.getMaxPrice() == null ? Long.MAX_VALUE
+                        : GroceryPriceIndex.toCents(criteria.getMaxPrice(), RoundingMode.FLOOR),
+                criteria.getStockBelow() == null ? Long.MAX_VALUE : criteria.getStockBelow(),
+                after != null,
+                after != null ? epochMicros(after.getUpdatedAt()) : 0,
+                after != null ? after.getId() : 0);
+    }
+
+    /**
+     * One slot per row ever stored; slots of deleted rows have id 0 until reused.
+     * Categories stay in the dictionary once seen, there are only a handful.
+     */
+    private static final class Columns {
+        private long[] ids;
+        private int[] categoryIds;
+        private long[] priceCents;
+        private int[] quantities;
+        private long[] updatedAt;
+        private GroceryResponse[] rows;
+        // slots in use, free ones included
+        private int size;
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+        private final LongIntHashMap slotById;
+        private final List<String> categoryNames = new ArrayList<>();
+        private final Map<String, Integer> categoryIdByName = new HashMap<>();
+
+        Columns(int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            ids = new long[capacity];
+            categoryIds = new int[capacity];
+            priceCents = new long[capacity];
+            quantities = new int[capacity];
+            updatedAt = new long[capacity];
+            rows = new GroceryResponse[capacity];
+            slotById = new LongIntHashMap(capacity);
+        }
+
+        void put(GroceryResponse grocery) {
+            int slot = slotById.get(grocery.getId());
+            if (slot == LongIntHashMap.ABSENT) {
+                slot = freeCount > 0 ? freeSlots[--freeCount] : size++;
+                if (slot == ids.length) {
+                    grow();
+                }
+                slotById.put(grocery.getId(), slot);
+            }
+            ids[slot] = grocery.getId();
+            categoryIds[slot] = categoryId(grocery.getCategory());
+            priceCents[slot] = GroceryPriceIndex.toCents(grocery.getPrice(), RoundingMode.HALF_UP);
+            quantities[slot] = grocery.getQuantity();
+            updatedAt[slot] = epochMicros(grocery.getUpdatedAt());
+            rows[slot] = grocery;
+        }
+
+        GroceryResponse get(long id) {
+            int slot = slotById.get(id);
+            return slot == LongIntHashMap.ABSENT ? null : rows[slot];
+        }
+
+        void remove(long id) {
+            int slot = slotById.remove(id);
+            if (slot == LongIntHashMap.ABSENT) {
+                return;
+            }
+            ids[slot] = 0;
+            rows[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        private int categoryId(String category) {
+            Integer id = categoryIdByName.get(category);
+            if (id == null) {
+                id = categoryNames.size();
+                categoryNames.add(category);
+                categoryIdByName.put(category, id);
+            }
+            return id;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+    }
+
+    // A query compiled to primitive bounds; price and stock bounds are always applied,
+    // open ones are just the widest values.
+    private record Scan(boolean[] categories, long minCents, long maxCents, long stockBelow,
+            boolean keyset, long afterUpdatedAt, long afterId) {
+
+        boolean matches(Columns c, int slot) {
+            long id = c.ids[slot];
+            if (id == 0) {
+                return false;
+            }
+            if (categories != null && !categories[c.categoryIds[slot]]) {
+                return false;
+            }
+            long cents = c.priceCents[slot];
+            if (cents < minCents || cents > maxCents || c.quantities[slot] >= stockBelow) {
+                return false;
+            }
+            if (keyset) {
+                // the keyset predicate of GrocerySpecifications: (updatedAt, id) below the cursor
+                long time = c.updatedAt[slot];
+                return time < afterUpdatedAt || time == afterUpdatedAt && id < afterId;
+            }
+            return true;
+        }
+    }
+
+    private enum SortKey {
+        UPDATED_AT, PRICE, QUANTITY, NAME;
+
+        static SortKey of(String field) {
+            return switch (field) {
+                case "price" -> PRICE;
+                case "quantity" -> QUANTITY;
+                case "name" -> NAME;
+                default -> UPDATED_AT;
+            };
+        }
+
+        long value(Columns c, int slot) {
+            return switch (this) {
+                case PRICE -> c.priceCents[slot];
+                case QUANTITY -> c.quantities[slot];
+                default -> c.updatedAt[slot];
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface Leaf<R> {
+        R scan(int from, int to);
+    }
+
+    private static final class ScanTask<R> extends RecursiveTask<R> {
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Leaf<R> leaf;
+        private final BinaryOperator<R> combine;
+
+        ScanTask(int from, int to, int leafSize, Leaf<R> leaf, BinaryOperator<R> combine) {
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= leafSize) {
+                return leaf.scan(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<R> left = new ScanTask<>(from, middle, leafSize, leaf, combine);
+            left.fork();
+            R right = new ScanTask<>(middle, to, leafSize, leaf, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    // Growable list of matching slots.
+    private static final class Slots {
+        private int[] slots;
+        private int size;
+
+        Slots(int capacity) {
+            slots = new int[Math.max(capacity, 16)];
+        }
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        Slots append(Slots other) {
+            if (size + other.size > slots.length) {
+                slots = Arrays.copyOf(slots, size + other.size);
+            }
+            System.arraycopy(other.slots, 0, slots, size, other.size);
+            size += other.size;
+            return this;
+        }
+    }
+
+    /**
+     * The first {@code limit} slots in sort order (key, then id), as a bounded binary
+     * heap whose root is the one that comes last, so a better slot replaces it.
+     */
+    private static final class TopSlots {
+        private final Columns c;
+        private final SortKey sortKey;
+        private final boolean ascending;
+        private final int[] slots;
+        private int size;
+
+        TopSlots(Columns c, SortKey sortKey, boolean ascending, int limit) {
+            this.c = c;
+            this.sortKey = sortKey;
+            this.ascending = ascending;
+            this.slots = new int[limit];
+        }
+
+        void offer(int slot) {
+            if (size < slots.length) {
+                slots[size] = slot;
+                siftUp(size++);
+            } else if (before(slot, slots[0])) {
+                slots[0] = slot;
+                siftDown(0);
+            }
+        }
+
+        TopSlots merge(TopSlots other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.slots[i]);
+            }
+            return this;
+        }
+
+        // Empties the heap, last row first.
+        List<GroceryResponse> drain() {
+            GroceryResponse[] ordered = new GroceryResponse[size];
+            while (size > 0) {
+                ordered[size - 1] = c.rows[slots[0]];
+                slots[0] = slots[--size];
+                siftDown(0);
+            }
+            return new ArrayList<>(Arrays.asList(ordered));
+        }
+
+        private boolean before(int a, int b) {
+            int order = Long.compare(sortKey.value(c, a), sortKey.value(c, b));
+            if (order == 0) {
+                order = Long.compare(c.ids[a], c.ids[b]);
+            }
+            return ascending ? order < 0 : order > 0;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(slots[parent], slots[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int later = 2 * i + 1;
+                if (later >= size) {
+                    return;
+                }
+                if (later + 1 < size && before(slots[later], slots[later + 1])) {
+                    later++;
+                }
+                if (!before(slots[i], slots[later])) {
+                    return;
+                }
+                swap(i, later);
+                i = later;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = slots[i];
+            slots[i] = slots[j];
+            slots[j] = slot;
+        }
+    }
+
+    // Per-category sums over one range of slots, indexed by category id.
+    private static final class Totals {
+        private final long[] items;
+        private final long[] quantity;
+        private final long[] valueCents;
+        private final long[] priceSumCents;
+        private final long[] minCents;
+        private final long[] maxCents;
+
+        Totals(int categories) {
+            items = new long[categories];
+            quantity = new long[categories];
+            valueCents = new long[categories];
+            priceSumCents = new long[categories];
+            minCents = new long[categories];
+            maxCents = new long[categories];
+            Arrays.fill(minCents, Long.MAX_VALUE);
+            Arrays.fill(maxCents, Long.MIN_VALUE);
+        }
+
+        void add(int category, long cents, int units) {
+            items[category]++;
+            quantity[category] += units;
+            valueCents[category] += cents * units;
+            priceSumCents[category] += cents;
+            minCents[category] = Math.min(minCents[category], cents);
+            maxCents[category] = Math.max(maxCents[category], cents);
+        }
+
+        Totals merge(Totals other) {
+            for (int i = 0; i < items.length; i++) {
+                items[i] += other.items[i];
+                quantity[i] += other.quantity[i];
+                valueCents[i] += other.valueCents[i];
+                priceSumCents[i] += other.priceSumCents[i];
+                minCents[i] = Math.min(minCents[i], other.minCents[i]);
+                maxCents[i] = Math.max(maxCents[i], other.maxCents[i]);
+            }
+            return this;
+        }
+
+        // Same shape and rounding as GroceryCategoryStats, ordered by category.
+        List<CategoryStatsResponse> toResponses(List<String> categoryNames) {
+            List<CategoryStatsResponse> stats = new ArrayList<>();
+            for (int i = 0; i < items.length; i++) {
+                if (items[i] == 0) {
+                    continue;
+                }
+                stats.add(CategoryStatsResponse.builder()
+                        .category(categoryNames.get(i))
+                        .itemCount(items[i])
+                        .totalQuantity(quantity[i])
+                        .inventoryValue(BigDecimal.valueOf(valueCents[i], 2))
+                        .minPrice(BigDecimal.valueOf(minCents[i], 2))
+                        .maxPrice(BigDecimal.valueOf(maxCents[i], 2))
+                        .avgPrice(BigDecimal.valueOf(priceSumCents[i], 2)
+                                .divide(BigDecimal.valueOf(items[i]), 2, RoundingMode.HALF_UP))
+                        .build());
+            }
+            stats.sort(Comparator.comparing(CategoryStatsResponse::getCategory));
+            return stats;
+        }
+    }
+}
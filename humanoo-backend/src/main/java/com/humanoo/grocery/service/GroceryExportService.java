@@ -0,0 +1,63 @@
+package com.humanoo.grocery.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.repository.GroceryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole catalog as NDJSON (one {@link GroceryResponse} per line) while
+ * rows are still being read from the database, so memory use does not grow with
+ * the size of the table.
+ */
+@Service
+public class GroceryExportService {
+
+    // flush periodically so clients start receiving data before the scan finishes
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final GroceryRepository groceryRepository;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public GroceryExportService(GroceryRepository groceryRepository, ObjectMapper objectMapper) {
+        this.groceryRepository = groceryRepository;
+        this.writer = objectMapper.writerFor(GroceryResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportGroceries(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = writer.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // lines are separated explicitly below instead of Jackson's default root separator
+        generator.setRootValueSeparator(null);
+
+        // rows are projected into DTOs, so the persistence context stays empty
+        try (Stream<GroceryResponse> groceries = groceryRepository.streamAllResponses()) {
+            Iterator<GroceryResponse> iterator = groceries.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                written++;
+                if (written == 1 || written % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        } finally {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryHistoryEntry;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.GroceryHistory;
+import com.humanoo.grocery.repository.GroceryHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind price/quantity history (GET /api/groceries/{id}/history).
+ *
+ * <p>Committed changes that touch price or quantity are turned into a
+ * {@link GroceryHistory} row and put on a bounded, lock-free queue; the request
+ * thread never waits for the history insert. A single writer thread flushes the
+ * queue every {@code flush-interval} in batches of {@code batch-size}, one
+ * transaction per batch. When the queue is full, records are dropped and counted
+ * rather than blocking writers. {@link #shutdown()} stops the writer and drains
+ * what is left.
+ *
+ * <p>Metrics: {@value #QUEUE_DEPTH_METRIC}, {@value #DROPPED_METRIC},
+ * {@value #WRITTEN_METRIC} and the {@value #FLUSH_METRIC} timer (one sample per batch).
+ */
+@Component
+public class GroceryHistoryLog {
+
+    public static final String QUEUE_DEPTH_METRIC = "grocery.history.queue.depth";
+    public static final String DROPPED_METRIC = "grocery.history.dropped";
+    public static final String WRITTEN_METRIC = "grocery.history.written";
+    public static final String FLUSH_METRIC = "grocery.history.flush";
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryHistoryLog.class);
+
+    // open bounds for range queries without from/to
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final GroceryHistoryRepository historyRepository;
+    private final int capacity;
+    private final int batchSize;
+
+    // many producers, one consumer; depth enforces the bound without a lock
+    private final Queue<GroceryHistory> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Timer flushTimer;
+    private final ScheduledExecutorService writer;
+
+    @Autowired
+    public GroceryHistoryLog(GroceryHistoryRepository historyRepository, MeterRegistry meterRegistry,
+            @Value("${grocery.history.queue-capacity:10000}") int capacity,
+            @Value("${grocery.history.batch-size:500}") int batchSize,
+            @Value("${grocery.history.flush-interval:500ms}") Duration flushInterval) {
+        this.historyRepository = historyRepository;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        Gauge.builder(QUEUE_DEPTH_METRIC, depth, AtomicInteger::get)
+                .description("History records waiting for the writer")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(DROPPED_METRIC)
+                .description("History records lost to a full queue or a failed flush")
+                .register(meterRegistry);
+        this.written = Counter.builder(WRITTEN_METRIC).register(meterRegistry);
+        this.flushTimer = Timer.builder(FLUSH_METRIC)
+                .description("Time to insert one batch of history records")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grocery-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        GroceryHistory record = toRecord(event);
+        if (record != null) {
+            enqueue(record);
+        }
+    }
+
+    /**
+     * History of one grocery within {@code [from, to)}, oldest first. Changes from the
+     * last flush interval may not be visible yet.
+     */
+    public List<GroceryHistoryEntry> findHistory(Long groceryId, LocalDateTime from, LocalDateTime to,
+            Integer limit) {
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int pageSize = limit != null ? limit : GroceryService.MAX_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > GroceryService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + GroceryService.MAX_PAGE_SIZE);
+        }
+        return historyRepository.findHistory(groceryId, start, end, PageRequest.of(0, pageSize));
+    }
+
+    public int queueDepth() {
+        return depth.get();
+    }
+
+    boolean enqueue(GroceryHistory record) {
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        queue.offer(record);
+        return true;
+    }
+
+    // Runs on the writer thread, and once more from shutdown() after it has stopped.
+    synchronized int flush() {
+        int total = 0;
+        while (true) {
+            List<GroceryHistory> batch = new ArrayList<>(batchSize);
+            GroceryHistory record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                return total;
+            }
+            depth.addAndGet(-batch.size());
+            try {
+                flushTimer.record(() -> {
+                    historyRepository.saveAll(batch);
+                });
+                written.increment(batch.size());
+                total += batch.size();
+            } catch (RuntimeException e) {
+                // retrying would let an outage fill the queue; count the batch as lost instead
+                dropped.increment(batch.size());
+                log.warn("Dropped {} grocery history records: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Grocery history writer did not stop within 30s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // anything enqueued after the last scheduled flush
+        flush();
+    }
+
+    // Only price and quantity are tracked, so renames and description edits are skipped.
+    static GroceryHistory toRecord(GroceryChangedEvent event) {
+        GroceryResponse before = event.getBefore();
+        GroceryResponse after = event.getAfter();
+        if (event.getType() == GroceryChangeType.UPDATED && before != null
+                && samePrice(before.getPrice(), after.getPrice())
+                && Objects.equals(before.getQuantity(), after.getQuantity())) {
+            return null;
+        }
+        return GroceryHistory.builder()
+                .groceryId(event.getId())
+                .operation(event.getType())
+                .price(after != null ? after.getPrice() : null)
+                .quantity(after != null ? after.getQuantity() : null)
+                .version(after != null ? after.getVersion() : before != null ? before.getVersion() : null)
+                .changedAt(after != null && after.getUpdatedAt() != null
+                        ? after.getUpdatedAt() : LocalDateTime.now())
+                .build();
+    }
+
+    private static boolean samePrice(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
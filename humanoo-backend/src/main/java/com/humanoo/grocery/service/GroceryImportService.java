@@ -0,0 +1,485 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryImportJob;
+import com.humanoo.grocery.dto.GroceryImportRowError;
+import com.humanoo.grocery.dto.GroceryImportStatus;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bulk catalog import from CSV (POST /api/groceries/import). The request thread
+ * copies the upload to a temporary file and checks its header; the import itself
+ * then runs on a job thread, in three stages:
+ * <ol>
+ *   <li>the job thread reads records off the file and hands them on in chunks of
+ *       {@code chunk-size};</li>
+ *   <li>a bounded worker pool splits the fields and runs Bean Validation on each
+ *       chunk in parallel;</li>
+ *   <li>the job thread takes finished chunks back in file order, checks their
+ *       names against the file so far and, with one query per chunk, against the
+ *       catalog, then inserts the chunk in one transaction (JDBC-batched).</li>
+ * </ol>
+ * At most {@code max-pending-chunks} chunks are read ahead of the writer, which
+ * bounds memory whatever the size of the upload. Invalid and duplicate rows are
+ * reported with their line number and skipped; the rest are imported.
+ *
+ * <p>The header names the columns, in any order: {@code name}, {@code price},
+ * {@code quantity} and {@code category} are required, {@code description},
+ * {@code unit} and {@code reorderThreshold} optional. Jobs can be followed by id
+ * while they run; the last {@code retained-jobs} finished ones are kept.
+ * {@link #importCsv} runs the same pipeline on the caller's thread instead.
+ */
+@Service
+public class GroceryImportService {
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "price", "quantity", "category");
+    private static final Set<String> OPTIONAL_COLUMNS = Set.of("description", "unit", "reorderthreshold");
+
+    private final GroceryRepository groceryRepository;
+    private final GroceryService groceryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final int maxErrors;
+    private final int retainedJobs;
+    private final ExecutorService workers;
+    // one thread per running job; they mostly wait on the workers and the database
+    private final ExecutorService jobRunner;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> finishedJobs = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public GroceryImportService(GroceryRepository groceryRepository, GroceryService groceryService,
+            ApplicationEventPublisher eventPublisher, Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${grocery.import.workers:0}") int workers,
+            @Value("${grocery.import.chunk-size:1000}") int chunkSize,
+            @Value("${grocery.import.max-pending-chunks:16}") int maxPendingChunks,
+            @Value("${grocery.import.max-errors:1000}") int maxErrors,
+            @Value("${grocery.import.retained-jobs:50}") int retainedJobs) {
+        this.groceryRepository = groceryRepository;
+        this.groceryService = groceryService;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxPendingChunks = maxPendingChunks;
+        this.maxErrors = maxErrors;
+        this.retainedJobs = retainedJobs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(
+                workers > 0 ? workers : Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "grocery-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        AtomicInteger jobNumber = new AtomicInteger();
+        this.jobRunner = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "grocery-import-job-" + jobNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Copies the CSV read from {@code body} to a temporary file, checks its header and
+     * imports it in the background. Returns the job as it starts; follow it with
+     * {@link #getJob(String)}.
+     *
+     * @throws IllegalArgumentException when the upload is empty or its header is invalid
+     */
+    public GroceryImportJob submitCsv(InputStream body) throws IOException {
+        Path spool = Files.createTempFile("grocery-import-", ".csv");
+        CsvRecordReader reader = null;
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+            reader = new CsvRecordReader(Files.newBufferedReader(spool, StandardCharsets.UTF_8));
+            Map<String, Integer> columns = readHeader(reader);
+            ImportJob job = new ImportJob(UUID.randomUUID().toString(), maxErrors);
+            jobs.put(job.id, job);
+            CsvRecordReader records = reader;
+            jobRunner.execute(() -> {
+                try (records) {
+                    execute(job, records, columns);
+                } catch (IOException | RuntimeException e) {
+                    // already recorded on the job
+                } finally {
+                    deleteQuietly(spool);
+                }
+            });
+            return job.snapshot();
+        } catch (IOException | RuntimeException e) {
+            if (reader != null) {
+                reader.close();
+            }
+            deleteQuietly(spool);
+            throw e;
+        }
+    }
+
+    /**
+     * Imports the CSV read from {@code body} and returns the finished job. Progress
+     * is visible through {@link #getJob(String)} while this runs.
+     *
+     * @throws IllegalArgumentException when the header or the CSV framing is invalid
+     */
+    public GroceryImportJob importCsv(InputStream body) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), maxErrors);
+        jobs.put(job.id, job);
+        Map<String, Integer> columns;
+        CsvRecordReader reader = new CsvRecordReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            columns = readHeader(reader);
+        } catch (IOException | RuntimeException e) {
+            job.finish(GroceryImportStatus.FAILED, e.getMessage());
+            retire(job);
+            throw e;
+        }
+        execute(job, reader, columns);
+        return job.snapshot();
+    }
+
+    public Optional<GroceryImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::snapshot);
+    }
+
+    // running jobs first, then newest first
+    public List<GroceryImportJob> getJobs() {
+        return jobs.values().stream()
+                .map(ImportJob::snapshot)
+                .sorted(Comparator.comparing((GroceryImportJob job) -> job.getStatus() != GroceryImportStatus.RUNNING)
+                        .thenComparing(GroceryImportJob::getStartedAt, Comparator.reverseOrder()))
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static Map<String, Integer> readHeader(CsvRecordReader reader) throws IOException {
+        String header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        return columns(CsvRecordReader.split(header));
+    }
+
+    private void execute(ImportJob job, CsvRecordReader reader, Map<String, Integer> columns) throws IOException {
+        try {
+            run(job, reader, columns);
+            job.finish(GroceryImportStatus.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            job.finish(GroceryImportStatus.FAILED, e.getMessage());
+            throw e;
+        } finally {
+            retire(job);
+        }
+    }
+
+    private void run(ImportJob job, CsvRecordReader reader, Map<String, Integer> columns) throws IOException {
+        Deque<CompletableFuture<ValidatedChunk>> pending = new ArrayDeque<>();
+        // lower-cased name -> line it was first seen on; only touched by this thread
+        Map<String, Long> seenNames = new HashMap<>();
+        try {
+            List<RawRecord> chunk = new ArrayList<>(chunkSize);
+            String record;
+            while ((record = reader.next()) != null) {
+                chunk.add(new RawRecord(reader.recordLine(), record));
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    pending.add(validateAsync(chunk, columns));
+                    chunk = new ArrayList<>(chunkSize);
+                    // backpressure: stop reading until the writer has caught up
+                    if (pending.size() >= maxPendingChunks) {
+                        write(await(pending.poll()), seenNames, job);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                pending.add(validateAsync(chunk, columns));
+            }
+            while (!pending.isEmpty()) {
+                write(await(pending.poll()), seenNames, job);
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private CompletableFuture<ValidatedChunk> validateAsync(List<RawRecord> chunk, Map<String, Integer> columns) {
+        return CompletableFuture.supplyAsync(() -> validate(chunk, columns), workers);
+    }
+
+    // Runs on a worker thread.
+    ValidatedChunk validate(List<RawRecord> chunk, Map<String, Integer> columns) {
+        List<ValidRow> rows = new ArrayList<>(chunk.size());
+        List<GroceryImportRowError> errors = new ArrayList<>();
+        for (RawRecord record : chunk) {
+            try {
+                GroceryCreateRequest request = toRequest(CsvRecordReader.split(record.text()), columns);
+                Set<ConstraintViolation<GroceryCreateRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    throw new IllegalArgumentException(GroceryBatchService.describe(violations));
+                }
+                rows.add(new ValidRow(record.line(), request));
+            } catch (IllegalArgumentException e) {
+                errors.add(new GroceryImportRowError(record.line(), e.getMessage()));
+            }
+        }
+        return new ValidatedChunk(rows, errors);
+    }
+
+    private void write(ValidatedChunk chunk, Map<String, Long> seenNames, ImportJob job) {
+        chunk.errors().forEach(job::fail);
+
+        List<ValidRow> candidates = new ArrayList<>(chunk.rows().size());
+        for (ValidRow row : chunk.rows()) {
+            Long firstLine = seenNames.putIfAbsent(row.key(), row.line());
+            if (firstLine != null) {
+                job.fail(new GroceryImportRowError(row.line(), "Grocery with name '" + row.request().getName()
+                        + "' appears earlier in the file, on line " + firstLine));
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existing = new HashSet<>(groceryRepository.findExistingLowerCaseNames(
+                candidates.stream().map(ValidRow::key).toList()));
+        List<Grocery> groceries = new ArrayList<>(candidates.size());
+        for (ValidRow row : candidates) {
+            if (existing.contains(row.key())) {
+                job.fail(new GroceryImportRowError(row.line(), "Grocery with name '" + row.request().getName()
+                        + "' already exists"));
+            } else {
+                groceries.add(groceryService.toEntity(row.request()));
+            }
+        }
+        if (groceries.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // inserts go out in hibernate.jdbc.batch_size batches at flush
+            groceryRepository.saveAll(groceries);
+            groceryRepository.flush();
+            // delivered to the in-memory views after the chunk commits
+            for (Grocery grocery : groceries) {
+                eventPublisher.publishEvent(GroceryChangedEvent.created(groceryService.mapToResponse(grocery)));
+            }
+        });
+        job.rowsImported.addAndGet(groceries.size());
+    }
+
+    private static ValidatedChunk await(CompletableFuture<ValidatedChunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int index = 0; index < header.size(); index++) {
+            String column = header.get(index).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (!REQUIRED_COLUMNS.contains(column) && !OPTIONAL_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column '" + header.get(index) + "'");
+            }
+            if (columns.put(column, index) != null) {
+                throw new IllegalArgumentException("Duplicate CSV column '" + header.get(index) + "'");
+            }
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing CSV column '" + required + "'");
+            }
+        }
+        return columns;
+    }
+
+    private static GroceryCreateRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields, found " + fields.size());
+        }
+        return GroceryCreateRequest.builder()
+                .name(text(fields, columns, "name"))
+                .description(text(fields, columns, "description"))
+                .price(number(fields, columns, "price", BigDecimal::new))
+                .quantity(number(fields, columns, "quantity", Integer::valueOf))
+                .reorderThreshold(number(fields, columns, "reorderthreshold", Integer::valueOf))
+                .category(text(fields, columns, "category"))
+                .unit(text(fields, columns, "unit"))
+                .build();
+    }
+
+    // empty fields and absent optional columns are null, so Bean Validation reports them
+    private static String text(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T number(List<String> fields, Map<String, Integer> columns, String column,
+            Function<String, T> parser) {
+        String value = text(fields, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": '" + value + "' is not a number");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private void retire(ImportJob job) {
+        finishedJobs.add(job.id);
+        while (finishedJobs.size() > retainedJobs) {
+            String oldest = finishedJobs.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    record RawRecord(long line, String text) {
+    }
+
+    record ValidRow(long line, GroceryCreateRequest request) {
+
+        String key() {
+            return request.getName().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    record ValidatedChunk(List<ValidRow> rows, List<GroceryImportRowError> errors) {
+    }
+
+    // Counters are written by the importing thread and read by GET /import/{jobId}.
+    private static final class ImportJob {
+
+        private final String id;
+        private final int maxErrors;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsImported = new AtomicLong();
+        private final AtomicLong rowsFailed = new AtomicLong();
+        private final List<GroceryImportRowError> errors = new ArrayList<>();
+
+        private volatile GroceryImportStatus status = GroceryImportStatus.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile long finishedNanos;
+        private volatile String message;
+
+        private ImportJob(String id, int maxErrors) {
+            this.id = id;
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(GroceryImportRowError error) {
+            rowsFailed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        private void finish(GroceryImportStatus status, String message) {
+            this.finishedNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.message = message;
+            this.status = status;
+        }
+
+        private GroceryImportJob snapshot() {
+            GroceryImportStatus current = status;
+            long imported = rowsImported.get();
+            long failed = rowsFailed.get();
+            long elapsedNanos = (current == GroceryImportStatus.RUNNING ? System.nanoTime() : finishedNanos)
+                    - startedNanos;
+            List<GroceryImportRowError> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return GroceryImportJob.builder()
+                    .jobId(id)
+                    .status(current)
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(imported)
+                    .rowsFailed(failed)
+                    .rowsPerSecond(elapsedNanos > 0 ? (imported + failed) * 1e9 / elapsedNanos : 0)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .errors(reported)
+                    .errorsTruncated(failed > reported.size())
+                    .message(message)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Sorted in-memory secondary index over price, overall and per category. Keys are
+ * (price in cents as a long, id) pairs in {@link ConcurrentSkipListSet}s, so a price
+ * range or the N cheapest / most expensive items are a sub-set view walked in
+ * order: O(log n + k) with no BigDecimal comparisons.
+ * Each item costs one key object, shared by both sets and the id map, that points at
+ * the {@link GroceryResponse} the other views hold too; no price is kept boxed.
+ * Reads are lock-free; writes and rebuilds are serialized, and a change older than
+ * the indexed copy is dropped (see {@link RecentChanges}).
+ */
+@Component
+public class GroceryPriceIndex {
+
+    private volatile Map<Long, PriceKey> entries = new ConcurrentHashMap<>();
+    private volatile NavigableSet<PriceKey> all = new ConcurrentSkipListSet<>();
+    private volatile Map<String, NavigableSet<PriceKey>> byCategory = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // guarded by this
+    private final RecentChanges recentChanges = new RecentChanges();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Items priced within [minPrice, maxPrice] in price order (ties by id).
+     *
+     * @param categories restricts the result to these categories; null or empty for all
+     * @param minPrice   inclusive lower bound, null for none
+     * @param maxPrice   inclusive upper bound, null for none
+     * @param descending most expensive first instead of cheapest first
+     * @param limit      maximum number of items
+     */
+    public List<GroceryResponse> range(Collection<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+            boolean descending, int limit) {
+        long from = minPrice == null ? Long.MIN_VALUE : toCents(minPrice, RoundingMode.CEILING);
+        long to = maxPrice == null ? Long.MAX_VALUE : toCents(maxPrice, RoundingMode.FLOOR);
+        if (from > to || limit < 1) {
+            return List.of();
+        }
+        PriceKey low = new PriceKey(from, Long.MIN_VALUE, null);
+        PriceKey high = new PriceKey(to, Long.MAX_VALUE, null);
+
+        List<NavigableSet<PriceKey>> sources = new ArrayList<>();
+        if (categories == null || categories.isEmpty()) {
+            sources.add(all);
+        } else {
+            for (String category : new LinkedHashSet<>(categories)) {
+                NavigableSet<PriceKey> keys = byCategory.get(category);
+                if (keys != null) {
+                    sources.add(keys);
+                }
+            }
+        }
+
+        // the first `limit` keys of every source, merged and cut again
+        List<PriceKey> keys = new ArrayList<>();
+        for (NavigableSet<PriceKey> source : sources) {
+            NavigableSet<PriceKey> view = source.subSet(low, true, high, true);
+            Iterator<PriceKey> iterator = descending ? view.descendingIterator() : view.iterator();
+            for (int taken = 0; taken < limit && iterator.hasNext(); taken++) {
+                keys.add(iterator.next());
+            }
+        }
+        if (sources.size() > 1) {
+            keys.sort(descending ? Comparator.<PriceKey>reverseOrder() : Comparator.<PriceKey>naturalOrder());
+        }
+
+        List<GroceryResponse> result = new ArrayList<>(Math.min(keys.size(), limit));
+        for (PriceKey key : keys) {
+            if (result.size() == limit) {
+                break;
+            }
+            // skip keys of an item that is being moved by a concurrent write
+            if (entries.get(key.id) == key) {
+                result.add(key.response);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> put(event.getAfter());
+            case DELETED -> remove(event.getId());
+        }
+    }
+
+    public synchronized void put(GroceryResponse grocery) {
+        PriceKey current = entries.get(grocery.getId());
+        if (recentChanges.isStale(grocery, current != null ? current.response : null)) {
+            return;
+        }
+        recentChanges.updated(grocery.getId(), grocery.getVersion());
+        unindex(grocery.getId());
+        PriceKey key = toKey(grocery);
+        entries.put(grocery.getId(), key);
+        all.add(key);
+        byCategory.computeIfAbsent(grocery.getCategory(), category -> new ConcurrentSkipListSet<>()).add(key);
+    }
+
+    public synchronized void remove(Long id) {
+        recentChanges.deleted(id);
+        unindex(id);
+    }
+
+    /** Call before reading the rows for {@link #rebuild}. */
+    public synchronized void beginRebuild() {
+        recentChanges.beginRebuild();
+    }
+
+    /**
+     * Replaces the whole index with the given rows. Changes applied since
+     * {@link #beginRebuild()} are kept wherever they are newer than the rows read.
+     */
+    public synchronized void rebuild(Collection<GroceryResponse> groceries) {
+        Map<Long, PriceKey> live = entries;
+        List<GroceryResponse> rows = recentChanges.merge(groceries, id -> {
+            PriceKey key = live.get(id);
+            return key != null ? key.response : null;
+        });
+        Map<Long, PriceKey> newEntries = new ConcurrentHashMap<>();
+        NavigableSet<PriceKey> newAll = new ConcurrentSkipListSet<>();
+        Map<String, NavigableSet<PriceKey>> newByCategory = new ConcurrentHashMap<>();
+        for (GroceryResponse grocery : rows) {
+            PriceKey key = toKey(grocery);
+            newEntries.put(grocery.getId(), key);
+            newAll.add(key);
+            newByCategory.computeIfAbsent(grocery.getCategory(), category -> new ConcurrentSkipListSet<>()).add(key);
+        }
+        entries = newEntries;
+        all = newAll;
+        byCategory = newByCategory;
+        ready = true;
+    }
+
+    private void unindex(Long id) {
+        PriceKey previous = entries.remove(id);
+        if (previous != null) {
+            all.remove(previous);
+            NavigableSet<PriceKey> keys = byCategory.get(previous.response.getCategory());
+            if (keys != null) {
+                keys.remove(previous);
+            }
+        }
+    }
+
+    // Out-of-range bounds are clamped rather than rejected; stored prices always fit.
+    static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        try {
+            return price.setScale(2, roundingMode).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return price.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private static PriceKey toKey(GroceryResponse grocery) {
+        return new PriceKey(toCents(grocery.getPrice(), RoundingMode.HALF_UP), grocery.getId(), grocery);
+    }
+
+    // Ordered by (cents, id) only; the response rides along so a key found in a set is
+    // the whole entry. Compared by identity against the id map, never with equals.
+    private static final class PriceKey implements Comparable<PriceKey> {
+
+        private final long cents;
+        private final long id;
+        private final GroceryResponse response;
+
+        private PriceKey(long cents, long id, GroceryResponse response) {
+            this.cents = cents;
+            this.id = id;
+            this.response = response;
+        }
+
+        @Override
+        public int compareTo(PriceKey other) {
+            int byPrice = Long.compare(cents, other.cents);
+            return byPrice != 0 ? byPrice : Long.compare(id, other.id);
+        }
+    }
+}
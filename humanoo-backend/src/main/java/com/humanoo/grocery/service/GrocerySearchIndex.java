@@ -0,0 +1,277 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySearchCursor;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory n-gram inverted index over grocery names and descriptions.
+ * Trigrams of both fields answer substring queries of three or more characters;
+ * for shorter queries (the first keystrokes) the unigrams and bigrams of the name
+ * are indexed as well. Candidates from the posting lists are verified with a
+ * plain contains check and ranked by where the match is; only the best
+ * {@code limit} are kept, in a heap, so a one-letter query that matches most of
+ * the catalog is not sorted in full. Pages continue from a
+ * {@link GrocerySearchCursor} in the same order.
+ * Reads are lock-free; writes and rebuilds are serialized, and a change older than
+ * the indexed copy is dropped (see {@link RecentChanges}).
+ */
+@Component
+public class GrocerySearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+
+    private static final Comparator<Rank> RANKING = Comparator.comparingInt(Rank::score).reversed()
+            .thenComparing(Rank::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Rank::id);
+
+    private volatile Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private volatile Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // guarded by this
+    private final RecentChanges recentChanges = new RecentChanges();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public List<GroceryResponse> search(String query, int limit) {
+        return search(query, null, limit);
+    }
+
+    /** The best {@code limit} matches ranked after {@code after}, or from the top when it is null. */
+    public List<GroceryResponse> search(String query, GrocerySearchCursor after, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        Map<Long, Document> current = documents;
+        Set<Long> candidates = candidates(needle);
+        Iterable<Document> matches = () -> candidates.stream()
+                .map(current::get)
+                .filter(Objects::nonNull)
+                .iterator();
+        return top(matches, candidates.size(), needle, after, limit);
+    }
+
+    /**
+     * Ranks rows that did not come from the index (the database fallback used until
+     * it is built) exactly as {@link #search} would; description matches count only
+     * if the rows include them.
+     */
+    public List<GroceryResponse> rank(Collection<GroceryResponse> groceries, String query,
+            GrocerySearchCursor after, int limit) {
+        String needle = normalize(query);
+        if (needle.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        List<Document> rows = new ArrayList<>(groceries.size());
+        for (GroceryResponse grocery : groceries) {
+            rows.add(new Document(grocery, normalize(grocery.getName()), normalize(grocery.getDescription()),
+                    Set.of()));
+        }
+        return top(rows, rows.size(), needle, after, limit);
+    }
+
+    /** The cursor for a page that ends with {@code last}, a row returned for {@code query}. */
+    public GrocerySearchCursor cursorAfter(String query, GroceryResponse last) {
+        int score = score(normalize(last.getName()), normalize(last.getDescription()), normalize(query));
+        return new GrocerySearchCursor(score, last.getUpdatedAt(), last.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> put(event.getAfter());
+            case DELETED -> remove(event.getId());
+        }
+    }
+
+    public synchronized void put(GroceryResponse grocery) {
+        Document current = documents.get(grocery.getId());
+        if (recentChanges.isStale(grocery, current != null ? current.response() : null)) {
+            return;
+        }
+        recentChanges.updated(grocery.getId(), grocery.getVersion());
+        unindex(grocery.getId());
+        Document document = toDocument(grocery);
+        document.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet())
+                .add(grocery.getId()));
+        documents.put(grocery.getId(), document);
+    }
+
+    public synchronized void remove(Long id) {
+        recentChanges.deleted(id);
+        unindex(id);
+    }
+
+    /** Call before reading the rows for {@link #rebuild}. */
+    public synchronized void beginRebuild() {
+        recentChanges.beginRebuild();
+    }
+
+    /**
+     * Replaces the whole index with the given rows. Changes applied since
+     * {@link #beginRebuild()} are kept wherever they are newer than the rows read.
+     */
+    public synchronized void rebuild(Collection<GroceryResponse> groceries) {
+        Map<Long, Document> live = documents;
+        List<GroceryResponse> rows = recentChanges.merge(groceries, id -> {
+            Document document = live.get(id);
+            return document != null ? document.response() : null;
+        });
+        Map<Long, Document> newDocuments = new ConcurrentHashMap<>();
+        Map<String, Set<Long>> newPostings = new ConcurrentHashMap<>();
+        for (GroceryResponse grocery : rows) {
+            Document document = toDocument(grocery);
+            document.grams().forEach(gram -> newPostings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet())
+                    .add(grocery.getId()));
+            newDocuments.put(grocery.getId(), document);
+        }
+        postings = newPostings;
+        documents = newDocuments;
+        ready = true;
+    }
+
+    private void unindex(Long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            previous.grams().forEach(gram -> {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            });
+        }
+    }
+
+    private Set<Long> candidates(String needle) {
+        if (needle.length() < GRAM_SIZE) {
+            return postings.getOrDefault(needle, Collections.emptySet());
+        }
+
+        // intersect starting from the rarest trigram to keep the working set small
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(needle, GRAM_SIZE, GRAM_SIZE)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    // A heap of the best `limit` so far with the worst on top, so the cost is
+    // O(n log limit) and nothing beyond the limit is kept or sorted.
+    private static List<GroceryResponse> top(Iterable<Document> documents, int count, String needle,
+            GrocerySearchCursor after, int limit) {
+        Rank start = after != null ? new Rank(after.getScore(), after.getUpdatedAt(), after.getId()) : null;
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.max(1, Math.min(limit, count)),
+                Comparator.comparing(Match::rank, RANKING.reversed()));
+        for (Document document : documents) {
+            int score = score(document.name(), document.description(), needle);
+            if (score == 0) {
+                continue;
+            }
+            Match match = new Match(document.response(), new Rank(score, document.response().getUpdatedAt(),
+                    document.response().getId()));
+            if (start != null && RANKING.compare(match.rank(), start) <= 0) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (RANKING.compare(match.rank(), best.peek().rank()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparing(Match::rank, RANKING));
+        return ranked.stream().map(Match::response).toList();
+    }
+
+    // Higher is better; 0 means the candidate was a false positive of the gram lookup.
+    private static int score(String name, String description, String needle) {
+        if (name.equals(needle)) {
+            return 100;
+        }
+        if (name.startsWith(needle)) {
+            return 80;
+        }
+        if (name.contains(" " + needle)) {
+            return 60;
+        }
+        if (name.contains(needle)) {
+            return 40;
+        }
+        // descriptions only carry trigrams, so short queries never match them
+        if (needle.length() >= GRAM_SIZE) {
+            if (description.startsWith(needle) || description.contains(" " + needle)) {
+                return 20;
+            }
+            if (description.contains(needle)) {
+                return 10;
+            }
+        }
+        return 0;
+    }
+
+    private Document toDocument(GroceryResponse grocery) {
+        String name = normalize(grocery.getName());
+        String description = normalize(grocery.getDescription());
+        Set<String> grams = new HashSet<>(grams(name, 1, GRAM_SIZE));
+        grams.addAll(grams(description, GRAM_SIZE, GRAM_SIZE));
+        return new Document(grocery, name, description, Set.copyOf(grams));
+    }
+
+    private static Set<String> grams(String text, int minSize, int maxSize) {
+        Set<String> grams = new HashSet<>();
+        for (int size = minSize; size <= maxSize; size++) {
+            for (int start = 0; start + size <= text.length(); start++) {
+                grams.add(text.substring(start, start + size));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(GroceryResponse response, String name, String description, Set<String> grams) {
+    }
+
+    private record Rank(int score, LocalDateTime updatedAt, long id) {
+    }
+
+    private record Match(GroceryResponse response, Rank rank) {
+    }
+}
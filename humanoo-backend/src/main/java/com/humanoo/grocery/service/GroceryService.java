@@ -1,25 +1,66 @@
 package com.humanoo.grocery.service;
 
+import com.humanoo.grocery.dto.CacheStatsResponse;
+import com.humanoo.grocery.dto.CategoryStatsResponse;
 import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryPage;
 import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySearchCursor;
 import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.event.GroceryChangedEvent;
 import com.humanoo.grocery.model.Grocery;
 import com.humanoo.grocery.repository.GroceryRepository;
+import com.humanoo.grocery.repository.GrocerySpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class GroceryService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 100;
+
     private final GroceryRepository groceryRepository;
+    private final GroceryCache groceryCache;
+    private final GrocerySearchIndex grocerySearchIndex;
+    private final GroceryPriceIndex groceryPriceIndex;
+    private final GroceryColumnStore groceryColumnStore;
+    private final LowStockMonitor lowStockMonitor;
+    private final GroceryCategoryStats groceryCategoryStats;
+    private final CatalogVersion catalogVersion;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public GroceryService(GroceryRepository groceryRepository) {
+    public GroceryService(GroceryRepository groceryRepository, GroceryCache groceryCache,
+            GrocerySearchIndex grocerySearchIndex, GroceryPriceIndex groceryPriceIndex,
+            GroceryColumnStore groceryColumnStore, LowStockMonitor lowStockMonitor,
+            GroceryCategoryStats groceryCategoryStats, CatalogVersion catalogVersion,
+            ApplicationEventPublisher eventPublisher) {
         this.groceryRepository = groceryRepository;
+        this.groceryCache = groceryCache;
+        this.grocerySearchIndex = grocerySearchIndex;
+        this.groceryPriceIndex = groceryPriceIndex;
+        this.groceryColumnStore = groceryColumnStore;
+        this.lowStockMonitor = lowStockMonitor;
+        this.groceryCategoryStats = groceryCategoryStats;
+        this.catalogVersion = catalogVersion;
+        this.eventPublisher = eventPublisher;
     }
 
     public GroceryResponse createGrocery(GroceryCreateRequest request) {
@@ -27,119 +68,405 @@ public class GroceryService {
             throw new IllegalArgumentException("Grocery with name '" + request.getName() + "' already exists");
         }
 
-        Grocery grocery = Grocery.builder()
-                .name(request.getName())
-                .description(request.getDescription())
-                .price(request.getPrice())
-                .quantity(request.getQuantity())
-                .category(request.getCategory())
-                .unit(request.getUnit())
-                .build();
-
-        Grocery savedGrocery = groceryRepository.save(grocery);
-        return mapToResponse(savedGrocery);
+        Grocery savedGrocery = groceryRepository.save(toEntity(request));
+        GroceryResponse response = mapToResponse(savedGrocery);
+        eventPublisher.publishEvent(GroceryChangedEvent.created(response));
+        return response;
     }
 
+    // List reads project rows straight into GroceryResponse instead of hydrating
+    // entities. Reads that are usually answered from memory (cache, search and price
+    // indexes) stay outside @Transactional so a hit does not check out a connection.
+
+    @Transactional(readOnly = true)
     public List<GroceryResponse> getAllGroceries() {
-        return groceryRepository.findAllByOrderByUpdatedAtDesc()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return groceryRepository.findAllResponses();
     }
 
     public Optional<GroceryResponse> getGroceryById(Long id) {
-        return groceryRepository.findById(id)
-                .map(this::mapToResponse);
+        return groceryCache.getItem(id, key -> groceryRepository.findById(key)
+                .map(this::mapToResponse));
     }
 
     public GroceryResponse updateGrocery(Long id, GroceryUpdateRequest request) {
+        return updateGrocery(id, request, null);
+    }
+
+    /**
+     * Updates the grocery only if it is still at {@code expectedVersion} (from an
+     * If-Match header); pass null to skip the check.
+     *
+     * @throws PreconditionFailedException       when the stored version differs
+     * @throws OptimisticLockingFailureException when another write commits first
+     */
+    public GroceryResponse updateGrocery(Long id, GroceryUpdateRequest request, Long expectedVersion) {
         Grocery grocery = groceryRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Grocery not found with id: " + id));
 
+        if (expectedVersion != null) {
+            if (!expectedVersion.equals(grocery.getVersion())) {
+                throw new PreconditionFailedException("Grocery " + id + " is at version "
+                        + grocery.getVersion() + ", expected " + expectedVersion);
+            }
+            // the entity keeps the version it was loaded with, so the merge in save()
+            // still fails if another writer gets in between
+        }
+
         if (request.getName() != null && !request.getName().equals(grocery.getName())) {
             if (groceryRepository.existsByNameIgnoreCase(request.getName())) {
                 throw new IllegalArgumentException("Grocery with name '" + request.getName() + "' already exists");
             }
-            grocery.setName(request.getName());
-        }
-        if (request.getDescription() != null) {
-            grocery.setDescription(request.getDescription());
-        }
-        if (request.getPrice() != null) {
-            grocery.setPrice(request.getPrice());
-        }
-        if (request.getQuantity() != null) {
-            grocery.setQuantity(request.getQuantity());
-        }
-        if (request.getCategory() != null) {
-            grocery.setCategory(request.getCategory());
-        }
-        if (request.getUnit() != null) {
-            grocery.setUnit(request.getUnit());
         }
+        GroceryResponse before = mapToResponse(grocery);
+        applyUpdate(grocery, request);
 
         Grocery updatedGrocery = groceryRepository.save(grocery);
-        return mapToResponse(updatedGrocery);
+        GroceryResponse response = mapToResponse(updatedGrocery);
+        eventPublisher.publishEvent(GroceryChangedEvent.updated(before, response));
+        return response;
     }
 
+    // Transactional so the event is published inside the delete's transaction: the
+    // sync tombstone is written before commit and rolls back with the delete.
+    @Transactional
     public void deleteGrocery(Long id) {
-        if (!groceryRepository.existsById(id)) {
-            throw new IllegalArgumentException("Grocery not found with id: " + id);
-        }
-        groceryRepository.deleteById(id);
+        Grocery grocery = groceryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Grocery not found with id: " + id));
+        // snapshot for listeners that subtract the row from derived state
+        GroceryResponse before = mapToResponse(grocery);
+        groceryRepository.delete(grocery);
+        eventPublisher.publishEvent(GroceryChangedEvent.deleted(id, before));
     }
 
     public List<GroceryResponse> searchGroceriesByName(String name) {
-        return groceryRepository.findByNameContainingIgnoreCase(name)
-                .stream()
-                .sorted((a, b) -> b.getUpdatedAt().compareTo(a.getUpdatedAt()))
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return searchGroceriesByName(name, DEFAULT_SEARCH_LIMIT);
+    }
+
+    // Ranked search over name and description.
+    public List<GroceryResponse> searchGroceriesByName(String name, int limit) {
+        return rankedSearch(name, null, limit);
     }
 
     public List<GroceryResponse> getGroceriesByCategory(String category) {
-        return groceryRepository.findByCategoryOrderByUpdatedAtDesc(category)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return groceryCache.getCategoryList(category, () -> groceryRepository.findResponsesByCategory(category));
     }
 
     public List<GroceryResponse> getGroceriesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return groceryRepository.findByPriceBetweenOrderByUpdatedAtDesc(minPrice, maxPrice)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return filterGroceries(GroceryFilterCriteria.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build());
     }
 
     public List<GroceryResponse> filterGroceries(String category, BigDecimal minPrice, BigDecimal maxPrice) {
-        return groceryRepository.findByCategoryAndPriceBetweenOrderByUpdatedAtDesc(category, minPrice, maxPrice)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return filterGroceries(GroceryFilterCriteria.builder()
+                .categories(category != null ? List.of(category) : null)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .build());
+    }
+
+    public List<GroceryResponse> filterGroceries(GroceryFilterCriteria criteria) {
+        validate(criteria);
+        if (canUseColumnStore(criteria)) {
+            return groceryColumnStore.filter(criteria, null, null);
+        }
+        if (canUsePriceIndex(criteria)) {
+            return fromPriceIndex(criteria, Integer.MAX_VALUE);
+        }
+        return groceryRepository.findMatching(criteria, null, null);
     }
 
+    // Without a threshold every item is measured against its own reorder threshold and
+    // the answer comes from the monitor's maintained set; an explicit threshold is an
+    // ad-hoc query on the quantity index, or a scan of the column store.
     public List<GroceryResponse> getLowStockGroceries(Integer threshold) {
-        return groceryRepository.findLowStockGroceries(threshold)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        if (threshold != null) {
+            return groceryColumnStore.isReady()
+                    ? groceryColumnStore.filter(stockBelow(threshold), null, null)
+                    : groceryRepository.findLowStockResponses(threshold);
+        }
+        return belowReorderThreshold();
+    }
+
+    public List<LowStockAlert> getLowStockAlerts(Long afterSequence, Integer limit) {
+        return lowStockMonitor.alertsAfter(afterSequence != null ? afterSequence : 0, resolvePageSize(limit));
     }
 
     public List<String> getAllCategories() {
-        return groceryRepository.findAllCategories();
+        return groceryCache.getCategories(groceryRepository::findAllCategories);
+    }
+
+    // One scan feeds every in-memory view; they share the row objects. Not readOnly,
+    // so with replica routing the views start from the primary, not a lagging replica.
+    // The views keep applying changes during the scan and merge them into the rows
+    // read, newest version winning, instead of losing them to the swap.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIndexes() {
+        grocerySearchIndex.beginRebuild();
+        groceryPriceIndex.beginRebuild();
+        groceryColumnStore.beginRebuild();
+        lowStockMonitor.beginRebuild();
+        groceryCategoryStats.beginRebuild();
+        List<GroceryResponse> groceries;
+        try (Stream<GroceryResponse> rows = groceryRepository.streamAllResponses()) {
+            groceries = rows.collect(Collectors.toList());
+        }
+        grocerySearchIndex.rebuild(groceries);
+        groceryPriceIndex.rebuild(groceries);
+        groceryColumnStore.rebuild(groceries);
+        lowStockMonitor.rebuild(groceries);
+        groceryCategoryStats.rebuild(groceries);
+    }
+
+    public String getCatalogETag() {
+        return catalogVersion.eTag();
+    }
+
+    public List<CategoryStatsResponse> getCategoryStats() {
+        return groceryCategoryStats.getStats();
+    }
+
+    // The maintained stats only cover the whole catalog; a filtered breakdown is a scan,
+    // of the column store when it is enabled and of the table otherwise.
+    public List<CategoryStatsResponse> getCategoryStats(GroceryFilterCriteria criteria) {
+        validate(criteria);
+        if (isUnfiltered(criteria)) {
+            return getCategoryStats();
+        }
+        if (canUseColumnStore(criteria)) {
+            return groceryColumnStore.aggregate(criteria);
+        }
+        return groceryRepository.aggregateMatching(criteria);
+    }
+
+    public List<CacheStatsResponse> getCacheStats() {
+        return groceryCache.getStats();
+    }
+
+    // Cursor-paged variants of the list reads above. Each one fetches a single extra
+    // row so we know whether there is a next page without running a count query.
+
+    @Transactional(readOnly = true)
+    public GroceryPage getAllGroceries(String cursor, Integer limit) {
+        GroceryCursor position = GroceryCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(groceryRepository.findPageAfter(position.getUpdatedAt(), position.getId(),
+                pageRequest(pageSize)), pageSize);
+    }
+
+    // Pages of the same ranking as the unpaged search, so both return the same rows.
+    public GroceryPage searchGroceriesByName(String name, String cursor, Integer limit) {
+        GrocerySearchCursor after = GrocerySearchCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        // one extra row tells whether there is a next page
+        List<GroceryResponse> rows = rankedSearch(name, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<GroceryResponse> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        return GroceryPage.builder()
+                .content(pageRows)
+                .nextCursor(hasMore ? grocerySearchIndex.cursorAfter(name, pageRows.get(pageSize - 1)).encode() : null)
+                .build();
+    }
+
+    // Until the index is built at startup, the name matches from the database are
+    // ranked the same way; description matches only show up once it is.
+    private List<GroceryResponse> rankedSearch(String name, GrocerySearchCursor after, int limit) {
+        if (grocerySearchIndex.isReady()) {
+            return grocerySearchIndex.search(name, after, limit);
+        }
+        return grocerySearchIndex.rank(groceryRepository.findResponsesByName(name, Pageable.unpaged()), name,
+                after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public GroceryPage getGroceriesByCategory(String category, String cursor, Integer limit) {
+        GroceryCursor position = GroceryCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        return toPage(groceryRepository.findPageByCategoryAfter(category, position.getUpdatedAt(),
+                position.getId(), pageRequest(pageSize)), pageSize);
+    }
+
+    // Cursors encode (updatedAt, id), so only the default newest-first order can be
+    // continued; any other sort just returns its first `limit` rows.
+    public GroceryPage filterGroceries(GroceryFilterCriteria criteria, String cursor, Integer limit) {
+        validate(criteria);
+        int pageSize = resolvePageSize(limit);
+        boolean keyset = GrocerySpecifications.DEFAULT_SORT.equals(GrocerySpecifications.sortField(criteria))
+                && !criteria.isAscending();
+        if (!keyset) {
+            if (cursor != null && !cursor.isBlank()) {
+                throw new IllegalArgumentException("Cursor paging is only supported when sorting by "
+                        + GrocerySpecifications.DEFAULT_SORT + " descending");
+            }
+            List<GroceryResponse> content;
+            if (canUseColumnStore(criteria)) {
+                content = groceryColumnStore.filter(criteria, null, pageSize);
+            } else if (canUsePriceIndex(criteria)) {
+                content = fromPriceIndex(criteria, pageSize);
+            } else {
+                content = groceryRepository.findMatching(criteria, null, pageSize);
+            }
+            return GroceryPage.builder().content(content).build();
+        }
+        GroceryCursor position = GroceryCursor.decode(cursor);
+        return toPage(canUseColumnStore(criteria)
+                ? groceryColumnStore.filter(criteria, position, pageSize + 1)
+                : groceryRepository.findMatching(criteria, position, pageSize + 1), pageSize);
+    }
+
+    public GroceryPage getLowStockGroceries(Integer threshold, String cursor, Integer limit) {
+        GroceryCursor position = GroceryCursor.decode(cursor);
+        int pageSize = resolvePageSize(limit);
+        if (threshold != null) {
+            return toPage(groceryColumnStore.isReady()
+                    ? groceryColumnStore.filter(stockBelow(threshold), position, pageSize + 1)
+                    : groceryRepository.findLowStockPageAfter(threshold, position.getUpdatedAt(),
+                            position.getId(), pageRequest(pageSize)), pageSize);
+        }
+        return toPage(belowReorderThreshold().stream()
+                .filter(row -> isAfter(row, position))
+                .limit(pageSize + 1L)
+                .collect(Collectors.toList()), pageSize);
+    }
+
+    private List<GroceryResponse> belowReorderThreshold() {
+        if (lowStockMonitor.isReady()) {
+            return lowStockMonitor.getLowStock();
+        }
+        // only until the startup scan has run
+        return groceryRepository.findAllResponses().stream()
+                .filter(lowStockMonitor::isLow)
+                .sorted(LowStockMonitor.NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    // In-memory version of the keyset predicate: does the row sort after the cursor, newest first?
+    private static boolean isAfter(GroceryResponse row, GroceryCursor position) {
+        int byTime = row.getUpdatedAt().compareTo(position.getUpdatedAt());
+        return byTime < 0 || byTime == 0 && row.getId() < position.getId();
+    }
+
+    // The column store holds everything /filter can ask for except the name, and takes
+    // precedence over the price index when it is enabled.
+    private boolean canUseColumnStore(GroceryFilterCriteria criteria) {
+        return groceryColumnStore.isReady() && (criteria.getName() == null || criteria.getName().isBlank());
+    }
+
+    private static boolean isUnfiltered(GroceryFilterCriteria criteria) {
+        return (criteria.getCategories() == null || criteria.getCategories().isEmpty())
+                && criteria.getMinPrice() == null && criteria.getMaxPrice() == null
+                && criteria.getStockBelow() == null
+                && (criteria.getName() == null || criteria.getName().isBlank());
+    }
+
+    private static GroceryFilterCriteria stockBelow(int threshold) {
+        return GroceryFilterCriteria.builder().stockBelow(threshold).build();
+    }
+
+    // Price ranges and price-sorted top-N need nothing but price and category, which
+    // the price index has in memory; name and stock filters still go to the database.
+    // Only price order is a walk of the index; any other order would copy every key in
+    // range out of it and sort them, which costs more than the database query.
+    private boolean canUsePriceIndex(GroceryFilterCriteria criteria) {
+        return "price".equals(GrocerySpecifications.sortField(criteria))
+                && groceryPriceIndex.isReady()
+                && (criteria.getName() == null || criteria.getName().isBlank())
+                && criteria.getStockBelow() == null;
+    }
+
+    private List<GroceryResponse> fromPriceIndex(GroceryFilterCriteria criteria, int limit) {
+        return groceryPriceIndex.range(criteria.getCategories(), criteria.getMinPrice(), criteria.getMaxPrice(),
+                !criteria.isAscending(), limit);
+    }
+
+    private void validate(GroceryFilterCriteria criteria) {
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null
+                && criteria.getMinPrice().compareTo(criteria.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        GrocerySpecifications.sortField(criteria);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private Pageable pageRequest(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private GroceryPage toPage(List<GroceryResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<GroceryResponse> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            GroceryResponse last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new GroceryCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return GroceryPage.builder()
+                .content(pageRows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    Grocery toEntity(GroceryCreateRequest request) {
+        return Grocery.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .quantity(request.getQuantity())
+                .reorderThreshold(request.getReorderThreshold())
+                .category(request.getCategory())
+                .unit(request.getUnit())
+                .build();
+    }
+
+    // Copies the non-null fields of the request; name uniqueness is checked by the caller.
+    void applyUpdate(Grocery grocery, GroceryUpdateRequest request) {
+        if (request.getName() != null) {
+            grocery.setName(request.getName());
+        }
+        if (request.getDescription() != null) {
+            grocery.setDescription(request.getDescription());
+        }
+        if (request.getPrice() != null) {
+            grocery.setPrice(request.getPrice());
+        }
+        if (request.getQuantity() != null) {
+            grocery.setQuantity(request.getQuantity());
+        }
+        if (request.getReorderThreshold() != null) {
+            grocery.setReorderThreshold(request.getReorderThreshold());
+        }
+        if (request.getCategory() != null) {
+            grocery.setCategory(request.getCategory());
+        }
+        if (request.getUnit() != null) {
+            grocery.setUnit(request.getUnit());
+        }
     }
 
-    private GroceryResponse mapToResponse(Grocery grocery) {
+    GroceryResponse mapToResponse(Grocery grocery) {
         return GroceryResponse.builder()
                 .id(grocery.getId())
                 .name(grocery.getName())
                 .description(grocery.getDescription())
                 .price(grocery.getPrice())
                 .quantity(grocery.getQuantity())
+                .reorderThreshold(grocery.getReorderThreshold())
                 .category(grocery.getCategory())
                 .unit(grocery.getUnit())
                 .createdAt(grocery.getCreatedAt())
                 .updatedAt(grocery.getUpdatedAt())
+                .version(grocery.getVersion())
                 .build();
     }
 }
\ No newline at end of file
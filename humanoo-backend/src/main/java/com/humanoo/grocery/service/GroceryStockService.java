@@ -0,0 +1,95 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.StockReservationItem;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.ChangeSequenceWatermark;
+import com.humanoo.grocery.repository.GroceryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock changes applied as a single conditional UPDATE per item instead of the
+ * read-modify-write of updateGrocery, so concurrent checkouts cannot lose updates
+ * and each row lock is held only for one statement plus a primary-key read.
+ */
+@Service
+public class GroceryStockService {
+
+    private final GroceryRepository groceryRepository;
+    private final GroceryService groceryService;
+    private final ChangeSequenceWatermark sequenceWatermark;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public GroceryStockService(GroceryRepository groceryRepository, GroceryService groceryService,
+            ChangeSequenceWatermark sequenceWatermark, ApplicationEventPublisher eventPublisher) {
+        this.groceryRepository = groceryRepository;
+        this.groceryService = groceryService;
+        this.sequenceWatermark = sequenceWatermark;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @throws IllegalArgumentException   when the grocery does not exist
+     * @throws InsufficientStockException  when the delta would make the stock negative
+     * @throws StockLimitExceededException when the delta would take the stock past Integer.MAX_VALUE
+     */
+    @Transactional
+    public GroceryResponse adjustStock(Long id, int delta) {
+        return apply(id, delta, LocalDateTime.now());
+    }
+
+    /**
+     * Applies every delta or none of them. Items are locked in id order so two
+     * overlapping reservations cannot deadlock; repeated ids are summed first, as longs
+     * so the sum cannot wrap around.
+     */
+    @Transactional
+    public List<GroceryResponse> reserveStock(List<StockReservationItem> items) {
+        Map<Long, Long> deltas = new TreeMap<>();
+        items.forEach(item -> deltas.merge(item.getId(), (long) item.getDelta(), Long::sum));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<GroceryResponse> results = new ArrayList<>(deltas.size());
+        // any failure propagates and rolls back the updates already applied
+        deltas.forEach((id, delta) -> results.add(apply(id, delta, now)));
+        return results;
+    }
+
+    private GroceryResponse apply(Long id, long delta, LocalDateTime now) {
+        // the bulk UPDATE bypasses the entity listeners but still takes a change_seq
+        sequenceWatermark.enter();
+        // a summed delta outside int range cannot apply to any stored quantity
+        if (delta != (int) delta || groceryRepository.adjustQuantity(id, (int) delta, now) == 0) {
+            if (!groceryRepository.existsById(id)) {
+                throw new IllegalArgumentException("Grocery not found with id: " + id);
+            }
+            if (delta > 0) {
+                throw new StockLimitExceededException(id, delta);
+            }
+            throw new InsufficientStockException(id, delta);
+        }
+
+        // read back the committed-to-be row for the response and the change event
+        Grocery grocery = groceryRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Grocery not found with id: " + id));
+        GroceryResponse after = groceryService.mapToResponse(grocery);
+        // only the quantity of the old row is known; its version and updatedAt are left out
+        GroceryResponse before = groceryService.mapToResponse(grocery);
+        before.setQuantity((int) (after.getQuantity() - delta));
+        before.setVersion(null);
+        before.setUpdatedAt(null);
+        eventPublisher.publishEvent(GroceryChangedEvent.updated(before, after));
+        return after;
+    }
+}
@@ -0,0 +1,200 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySyncResponse;
+import com.humanoo.grocery.dto.GrocerySyncToken;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.GroceryTombstone;
+import com.humanoo.grocery.repository.ChangeSequenceWatermark;
+import com.humanoo.grocery.repository.GroceryRepository;
+import com.humanoo.grocery.repository.GroceryTombstoneRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delta sync (GET /api/groceries/sync) for clients that keep a local copy of the
+ * catalog.
+ *
+ * <p>Every insert and update of a grocery takes the next value of one catalog-wide
+ * change sequence, stamped by the database (see V4), and every delete leaves a
+ * tombstone on the same sequence. A sync is two range scans past the client's
+ * position, merged in sequence order, so its cost follows the number of changes
+ * rather than the size of the catalog. Tombstones older than
+ * {@code tombstone-retention} are purged every {@code compaction-interval}; a token
+ * older than that gets a full sync with {@code reset} set.
+ *
+ * <p>Sequence values are taken when a row is written, not when its transaction
+ * commits, and a batch or an import chunk holds its values uncommitted for the whole
+ * transaction. The returned token is therefore held at the low-water mark of the
+ * writes in flight during the read ({@link ChangeSequenceWatermark}): changes past
+ * it may be sent again on the next sync, but none is skipped.
+ */
+@Service
+public class GrocerySyncService {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 5000;
+
+    private static final Logger log = LoggerFactory.getLogger(GrocerySyncService.class);
+
+    // tokens this close to the retention are refused too, so compaction cannot race a sync
+    private static final Duration RETENTION_MARGIN = Duration.ofMinutes(1);
+
+    private final GroceryRepository groceryRepository;
+    private final GroceryTombstoneRepository tombstoneRepository;
+    private final ChangeSequenceWatermark sequenceWatermark;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService compactor;
+
+    @Autowired
+    public GrocerySyncService(GroceryRepository groceryRepository, GroceryTombstoneRepository tombstoneRepository,
+            ChangeSequenceWatermark sequenceWatermark,
+            @Value("${grocery.sync.tombstone-retention:30d}") Duration tombstoneRetention,
+            @Value("${grocery.sync.compaction-interval:1h}") Duration compactionInterval) {
+        this.groceryRepository = groceryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.sequenceWatermark = sequenceWatermark;
+        this.tombstoneRetention = tombstoneRetention;
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grocery-tombstone-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compactor.scheduleWithFixedDelay(this::compact, compactionInterval.toMillis(),
+                compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Before commit, so the tombstone commits or rolls back with the delete itself;
+    // both delete paths (GroceryService, GroceryBatchService) publish inside their
+    // transaction. The fallback only covers a caller that does not.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        if (event.getType() == GroceryChangeType.DELETED) {
+            sequenceWatermark.enter();
+            tombstoneRepository.record(event.getId(), LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Changes after {@code since}, oldest first and at most {@code limit} of them.
+     * Without a token (or with an expired one) every grocery is returned instead and
+     * tombstones are skipped, since the client has nothing to delete.
+     */
+    // Not readOnly: with replica routing the read must come from the primary. The
+    // watermark only knows this instance's open transactions on the primary, so a
+    // lagging replica could hand out a token past changes it has not applied yet.
+    @Transactional
+    public GrocerySyncResponse sync(String since, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        Instant now = Instant.now();
+        GrocerySyncToken token = GrocerySyncToken.decode(since);
+        boolean reset = token != null && isExpired(token, now);
+        if (token == null || reset) {
+            // a full sync is complete as of when it starts, whichever page it ends on
+            token = new GrocerySyncToken(0, now);
+        }
+
+        // one extra of each tells whether anything is left after this page
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        List<Object[]> rows = List.of();
+        List<GroceryTombstone> tombstones = List.of();
+        long readStarted = sequenceWatermark.beginRead();
+        long floor;
+        try {
+            rows = groceryRepository.findChangedSince(token.getSequence(), fetch);
+            if (token.getSequence() != 0) {
+                tombstones = tombstoneRepository.findChangedSince(token.getSequence(), fetch);
+            }
+        } finally {
+            floor = sequenceWatermark.endRead(readStarted, highestSequence(rows, tombstones));
+        }
+
+        List<GroceryResponse> upserts = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long position = token.getSequence();
+        int r = 0;
+        int t = 0;
+        while (upserts.size() + deleted.size() < pageSize && (r < rows.size() || t < tombstones.size())) {
+            long rowSequence = r < rows.size() ? (Long) rows.get(r)[0] : Long.MAX_VALUE;
+            long tombstoneSequence = t < tombstones.size() ? tombstones.get(t).getChangeSequence() : Long.MAX_VALUE;
+            if (rowSequence < tombstoneSequence) {
+                upserts.add((GroceryResponse) rows.get(r++)[1]);
+                position = rowSequence;
+            } else {
+                deleted.add(tombstones.get(t++).getGroceryId());
+                position = tombstoneSequence;
+            }
+        }
+        // A write still in flight may commit below the last change sent; hold the token
+        // at the low-water mark so the next sync reads past it again. A held page is not
+        // followed straight away, since it would return the same changes until that
+        // write completes.
+        long safePosition = Math.max(token.getSequence(), Math.min(position, floor));
+        boolean hasMore = safePosition == position && (r < rows.size() || t < tombstones.size());
+
+        // a caught-up client is complete as of now; one still paging keeps the old time,
+        // because tombstones past its position may date from before now
+        Instant issuedAt = hasMore ? token.getIssuedAt() : now;
+        return GrocerySyncResponse.builder()
+                .upserts(upserts)
+                .deleted(deleted)
+                .token(new GrocerySyncToken(safePosition, issuedAt).encode())
+                .hasMore(hasMore)
+                .reset(reset)
+                .build();
+    }
+
+    private static long highestSequence(List<Object[]> rows, List<GroceryTombstone> tombstones) {
+        long highest = rows.isEmpty() ? 0 : (Long) rows.get(rows.size() - 1)[0];
+        if (!tombstones.isEmpty()) {
+            highest = Math.max(highest, tombstones.get(tombstones.size() - 1).getChangeSequence());
+        }
+        return highest;
+    }
+
+    // Runs on the compactor thread.
+    int compact() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+            int purged = tombstoneRepository.purgeDeletedBefore(cutoff);
+            if (purged > 0) {
+                log.info("Purged {} grocery tombstones deleted before {}", purged, cutoff);
+            }
+            return purged;
+        } catch (RuntimeException e) {
+            // a failed run is retried at the next interval
+            log.warn("Grocery tombstone compaction failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean isExpired(GrocerySyncToken token, Instant now) {
+        return token.getIssuedAt().isBefore(now.minus(tombstoneRetention).plus(RETENTION_MARGIN));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+}
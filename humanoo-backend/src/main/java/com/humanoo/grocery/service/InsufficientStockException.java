@@ -0,0 +1,8 @@
+package com.humanoo.grocery.service;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(Long id, long delta) {
+        super("Insufficient stock for grocery id " + id + " to apply " + delta);
+    }
+}
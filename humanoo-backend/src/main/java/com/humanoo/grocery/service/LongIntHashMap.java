@@ -0,0 +1,105 @@
+package com.humanoo.grocery.service;
+
+/**
+ * Open-addressing map from positive long keys to int values, so a lookup neither
+ * boxes nor allocates. The column store's id to slot index; not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int ABSENT = -1;
+
+    // never a valid key, marks an empty bucket
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        // kept at most two thirds full, so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 3 / 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** The value for {@code key}, or {@link #ABSENT}. */
+    int get(long key) {
+        for (int i = bucket(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == EMPTY) {
+                return ABSENT;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Key must be positive: " + key);
+        }
+        if ((size + 1) * 3L > keys.length * 2L) {
+            resize(keys.length * 2);
+        }
+        int i = bucket(key);
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    /** Removes {@code key} and returns its value, or {@link #ABSENT}. */
+    int remove(long key) {
+        int i = bucket(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return ABSENT;
+            }
+            i = (i + 1) & mask;
+        }
+        int value = values[i];
+        // backward-shift deletion: pull later entries of the chain into the gap, so
+        // lookups never need tombstones
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = bucket(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return value;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private int bucket(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,158 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.event.LowStockAlertType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintained set of groceries below their reorder threshold, so GET /low-stock
+ * reads the current alerts instead of scanning the table.
+ *
+ * <p>An item's threshold is its own {@code reorderThreshold}, else the one
+ * configured for its category ({@code grocery.low-stock.category-thresholds}),
+ * else {@code grocery.low-stock.default-threshold}. Every committed change is
+ * checked against it; when an item crosses the threshold in either direction a
+ * {@link LowStockAlert} is appended to a bounded history and published as an
+ * application event, which the change feed pushes to its subscribers. Changes older
+ * than one already applied are dropped (see {@link RecentChanges}).
+ */
+@Component
+public class LowStockMonitor {
+
+    // same order as the cursor-paged list endpoints
+    static final Comparator<GroceryResponse> NEWEST_FIRST = Comparator
+            .comparing(GroceryResponse::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(GroceryResponse::getId, Comparator.reverseOrder());
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultThreshold;
+    private final Map<String, Integer> categoryThresholds;
+
+    private volatile Map<Long, GroceryResponse> lowStock = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // guarded by this
+    private final LowStockAlert[] history;
+    private long nextSequence = 1;
+    private final RecentChanges recentChanges = new RecentChanges();
+
+    @Autowired
+    public LowStockMonitor(ApplicationEventPublisher eventPublisher,
+            @Value("${grocery.low-stock.default-threshold:10}") int defaultThreshold,
+            @Value("#{${grocery.low-stock.category-thresholds:{:}}}") Map<String, Integer> categoryThresholds,
+            @Value("${grocery.low-stock.history-size:1000}") int historySize) {
+        this.eventPublisher = eventPublisher;
+        this.defaultThreshold = defaultThreshold;
+        this.categoryThresholds = Map.copyOf(categoryThresholds);
+        this.history = new LowStockAlert[historySize];
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return lowStock.size();
+    }
+
+    public int thresholdOf(GroceryResponse grocery) {
+        if (grocery.getReorderThreshold() != null) {
+            return grocery.getReorderThreshold();
+        }
+        return categoryThresholds.getOrDefault(grocery.getCategory(), defaultThreshold);
+    }
+
+    public boolean isLow(GroceryResponse grocery) {
+        return grocery != null && grocery.getQuantity() != null && grocery.getQuantity() < thresholdOf(grocery);
+    }
+
+    // O(alerts): only the items currently below their threshold are touched
+    public List<GroceryResponse> getLowStock() {
+        List<GroceryResponse> rows = new ArrayList<>(lowStock.values());
+        rows.sort(NEWEST_FIRST);
+        return rows;
+    }
+
+    /**
+     * Alerts with a sequence greater than {@code afterSequence}, oldest first. Alerts
+     * that have already been evicted from the history are skipped silently.
+     */
+    public synchronized List<LowStockAlert> alertsAfter(long afterSequence, int limit) {
+        long oldest = Math.max(1, nextSequence - history.length);
+        List<LowStockAlert> alerts = new ArrayList<>();
+        for (long sequence = Math.max(afterSequence + 1, oldest);
+                sequence < nextSequence && alerts.size() < limit; sequence++) {
+            alerts.add(history[(int) (sequence % history.length)]);
+        }
+        return alerts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGroceryChanged(GroceryChangedEvent event) {
+        LowStockAlert alert;
+        synchronized (this) {
+            GroceryResponse after = event.getAfter();
+            if (after == null) {
+                recentChanges.deleted(event.getId());
+            } else if (recentChanges.isStale(after, lowStock.get(event.getId()))) {
+                return;
+            } else {
+                recentChanges.updated(event.getId(), after.getVersion());
+            }
+            boolean low = isLow(after);
+            GroceryResponse previous = low ? lowStock.put(event.getId(), after) : lowStock.remove(event.getId());
+            // until the startup scan we do not know what was low before, so no alerts yet
+            if (!ready || low == (previous != null)) {
+                return;
+            }
+            GroceryResponse grocery = after != null ? after : previous;
+            alert = LowStockAlert.builder()
+                    .sequence(nextSequence)
+                    .type(low ? LowStockAlertType.RAISED : LowStockAlertType.CLEARED)
+                    .groceryId(event.getId())
+                    .name(grocery.getName())
+                    .category(grocery.getCategory())
+                    .quantity(after != null ? after.getQuantity() : null)
+                    .threshold(thresholdOf(grocery))
+                    .raisedAt(LocalDateTime.now())
+                    .build();
+            history[(int) (nextSequence % history.length)] = alert;
+            nextSequence++;
+        }
+        // outside the lock; the change feed takes its own
+        eventPublisher.publishEvent(alert);
+    }
+
+    /** Call before reading the rows for {@link #rebuild}. */
+    public synchronized void beginRebuild() {
+        recentChanges.beginRebuild();
+    }
+
+    // Replaces the whole set from a full scan, keeping changes applied since
+    // beginRebuild() where they are newer; existing low items do not raise alerts.
+    public synchronized void rebuild(Collection<GroceryResponse> groceries) {
+        Map<Long, GroceryResponse> live = lowStock;
+        Map<Long, GroceryResponse> rebuilt = new ConcurrentHashMap<>();
+        for (GroceryResponse grocery : recentChanges.merge(groceries, live::get)) {
+            if (isLow(grocery)) {
+                rebuilt.put(grocery.getId(), grocery);
+            }
+        }
+        lowStock = rebuilt;
+        ready = true;
+    }
+}
@@ -0,0 +1,10 @@
+package com.humanoo.grocery.service;
+
+// An If-Match that names another version (or is not a tag of this item): 412, where a
+// concurrent write lost at save time is an OptimisticLockingFailureException and 409
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,134 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The latest version of each grocery an in-memory view applied in the last few
+ * minutes, deletes included.
+ *
+ * <p>Two transactions that update the same row commit in version order, but their
+ * after-commit listeners run on the committing threads and can reach a view in
+ * either order. A view asks {@link #isStale} before applying a change and drops the
+ * older one; since deletes are remembered too, a straggling update cannot bring a
+ * deleted row back.
+ *
+ * <p>A rebuild brackets its scan with {@link #beginRebuild()} and {@link #merge}, so
+ * changes the view applied while the scan ran are not wiped out by the older rows
+ * it read. Nothing expires in between.
+ *
+ * <p>Not thread-safe: guarded by the lock of the view that owns it.
+ */
+final class RecentChanges {
+
+    static final Duration RETENTION = Duration.ofMinutes(10);
+
+    // versions are never negative; null ones are recorded as -1 and never win
+    private static final long UNKNOWN = -1;
+
+    // insertion order is recording order, oldest first
+    private final LinkedHashMap<Long, Change> changes = new LinkedHashMap<>();
+    private boolean rebuilding;
+    private long rebuildStartedAt;
+
+    /**
+     * True when {@code grocery} is older than {@code current}, the view's copy of it
+     * (null when it holds none), or than the last change applied, or when the row was
+     * deleted.
+     */
+    boolean isStale(GroceryResponse grocery, GroceryResponse current) {
+        Long version = grocery.getVersion();
+        if (version == null) {
+            return false;
+        }
+        if (current != null && current.getVersion() != null && version < current.getVersion()) {
+            return true;
+        }
+        Change change = changes.get(grocery.getId());
+        return change != null && (change.deleted() || version < change.version());
+    }
+
+    void updated(Long id, Long version) {
+        record(id, new Change(version != null ? version : UNKNOWN, false, System.nanoTime()));
+    }
+
+    void deleted(Long id) {
+        record(id, new Change(UNKNOWN, true, System.nanoTime()));
+    }
+
+    void beginRebuild() {
+        rebuilding = true;
+        rebuildStartedAt = System.nanoTime();
+    }
+
+    /**
+     * The rows to rebuild from: {@code scanned}, except that a row changed since
+     * {@link #beginRebuild()} is taken from {@code live} (the view's current copy,
+     * null when it holds none) unless the scanned one is newer, and rows deleted
+     * since then are left out. Without a pending rebuild, {@code scanned} as is.
+     */
+    List<GroceryResponse> merge(Collection<GroceryResponse> scanned, Function<Long, GroceryResponse> live) {
+        if (!rebuilding) {
+            return new ArrayList<>(scanned);
+        }
+        Map<Long, Change> overtaken = new HashMap<>();
+        changes.forEach((id, change) -> {
+            if (change.recordedAt() - rebuildStartedAt >= 0) {
+                overtaken.put(id, change);
+            }
+        });
+        rebuilding = false;
+
+        List<GroceryResponse> rows = new ArrayList<>(scanned.size() + overtaken.size());
+        for (GroceryResponse grocery : scanned) {
+            Change change = overtaken.remove(grocery.getId());
+            if (change == null || !change.deleted() && grocery.getVersion() != null
+                    && grocery.getVersion() > change.version()) {
+                rows.add(grocery);
+            } else if (!change.deleted()) {
+                addIfPresent(rows, live.apply(grocery.getId()));
+            }
+        }
+        // created, or moved into the view, after the scan read past them
+        overtaken.forEach((id, change) -> {
+            if (!change.deleted()) {
+                addIfPresent(rows, live.apply(id));
+            }
+        });
+        return rows;
+    }
+
+    private static void addIfPresent(List<GroceryResponse> rows, GroceryResponse grocery) {
+        if (grocery != null) {
+            rows.add(grocery);
+        }
+    }
+
+    private void record(Long id, Change change) {
+        changes.remove(id);
+        changes.put(id, change);
+        if (rebuilding) {
+            return;
+        }
+        long cutoff = change.recordedAt() - RETENTION.toNanos();
+        Iterator<Change> oldest = changes.values().iterator();
+        while (oldest.hasNext()) {
+            if (oldest.next().recordedAt() - cutoff >= 0) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+
+    private record Change(long version, boolean deleted, long recordedAt) {
+    }
+}
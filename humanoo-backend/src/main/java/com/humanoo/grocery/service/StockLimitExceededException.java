@@ -0,0 +1,8 @@
+package com.humanoo.grocery.service;
+
+public class StockLimitExceededException extends RuntimeException {
+
+    public StockLimitExceededException(Long id, long delta) {
+        super("Stock of grocery id " + id + " would exceed " + Integer.MAX_VALUE + " after applying " + delta);
+    }
+}
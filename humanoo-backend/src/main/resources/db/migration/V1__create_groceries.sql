@@ -0,0 +1,23 @@
+-- Initial schema; must match the mapping in Grocery (ddl-auto=validate checks it on startup)
+
+CREATE SEQUENCE grocery_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE groceries (
+    id          BIGINT         NOT NULL PRIMARY KEY,
+    name        VARCHAR(100)   NOT NULL,
+    description VARCHAR(500),
+    price       NUMERIC(10, 2) NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    category    VARCHAR(50)    NOT NULL,
+    unit        VARCHAR(20),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    version     BIGINT
+);
+
+CREATE INDEX idx_groceries_category_updated ON groceries (category, updated_at);
+CREATE INDEX idx_groceries_updated_id ON groceries (updated_at, id);
+CREATE INDEX idx_groceries_price ON groceries (price);
+CREATE INDEX idx_groceries_quantity ON groceries (quantity);
+-- lets the fixture loader skip names that are already present without a scan per row
+CREATE INDEX idx_groceries_name ON groceries (name);
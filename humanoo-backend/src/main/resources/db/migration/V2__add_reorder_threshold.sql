@@ -0,0 +1,3 @@
+-- Per-item reorder point for the low-stock monitor; NULL falls back to the
+-- category or global default (grocery.low-stock.*).
+ALTER TABLE groceries ADD COLUMN reorder_threshold INTEGER;
@@ -0,0 +1,15 @@
+-- Append-only price/quantity history, written behind the request path by
+-- GroceryHistoryLog. No foreign key: history outlives deleted groceries.
+CREATE SEQUENCE grocery_history_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE grocery_history (
+    id          BIGINT        NOT NULL PRIMARY KEY,
+    grocery_id  BIGINT        NOT NULL,
+    operation   VARCHAR(10)   NOT NULL,
+    price       NUMERIC(10, 2),
+    quantity    INTEGER,
+    version     BIGINT,
+    changed_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX idx_grocery_history_grocery_changed ON grocery_history (grocery_id, changed_at);
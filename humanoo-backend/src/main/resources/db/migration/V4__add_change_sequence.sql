@@ -0,0 +1,23 @@
+-- Delta sync (GET /api/groceries/sync): every insert and update of a grocery, and
+-- every tombstone, takes the next value of one catalog-wide change sequence. The
+-- database assigns it (column default and ON UPDATE), so JPA writes, bulk JPQL
+-- updates and the CSV fixture loader are all covered without application code.
+CREATE SEQUENCE grocery_change_seq START WITH 1 INCREMENT BY 1;
+
+ALTER TABLE groceries ADD COLUMN change_seq BIGINT;
+UPDATE groceries SET change_seq = NEXT VALUE FOR grocery_change_seq;
+ALTER TABLE groceries ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE groceries ALTER COLUMN change_seq SET DEFAULT NEXT VALUE FOR grocery_change_seq;
+ALTER TABLE groceries ALTER COLUMN change_seq SET ON UPDATE NEXT VALUE FOR grocery_change_seq;
+CREATE UNIQUE INDEX idx_groceries_change_seq ON groceries (change_seq);
+
+-- Deleted grocery ids, kept for grocery.sync.tombstone-retention so syncing clients
+-- learn about hard deletes; purged by GrocerySyncService.
+CREATE TABLE grocery_tombstones (
+    grocery_id  BIGINT        NOT NULL PRIMARY KEY,
+    change_seq  BIGINT        DEFAULT NEXT VALUE FOR grocery_change_seq NOT NULL,
+    deleted_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_grocery_tombstones_change_seq ON grocery_tombstones (change_seq);
+CREATE INDEX idx_grocery_tombstones_deleted_at ON grocery_tombstones (deleted_at);
@@ -0,0 +1,25 @@
+-- Categories move out of groceries into a small dictionary table; groceries keep
+-- only the integer id. Grocery still exposes the name (CategoryConverter maps it
+-- through CategoryDictionary), so requests and responses are unchanged.
+CREATE TABLE categories (
+    id    INTEGER      GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name  VARCHAR(50)  NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_categories_name ON categories (name);
+
+INSERT INTO categories (name) SELECT DISTINCT category FROM groceries ORDER BY category;
+
+ALTER TABLE groceries ADD COLUMN category_id INTEGER;
+-- change_seq is set to itself so the backfill does not look like an edit of every
+-- row to syncing clients (V4's ON UPDATE only applies when the column is not set)
+UPDATE groceries g SET category_id = (SELECT c.id FROM categories c WHERE c.name = g.category),
+    change_seq = g.change_seq;
+ALTER TABLE groceries ALTER COLUMN category_id SET NOT NULL;
+
+-- same index, now on the id; created before the constraint so it also serves the
+-- foreign key instead of H2 adding one of its own
+DROP INDEX idx_groceries_category_updated;
+CREATE INDEX idx_groceries_category_updated ON groceries (category_id, updated_at);
+ALTER TABLE groceries ADD CONSTRAINT fk_groceries_category FOREIGN KEY (category_id) REFERENCES categories (id);
+ALTER TABLE groceries DROP COLUMN category;
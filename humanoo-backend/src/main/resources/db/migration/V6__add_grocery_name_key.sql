@@ -0,0 +1,6 @@
+-- The fixture loader skips names already present regardless of case. LOWER(name)
+-- cannot use idx_groceries_name, so the lower-cased name is kept in a generated
+-- column (not mapped in Grocery) and indexed instead.
+ALTER TABLE groceries ADD COLUMN name_key VARCHAR(100) GENERATED ALWAYS AS (LOWER(name));
+DROP INDEX idx_groceries_name;
+CREATE INDEX idx_groceries_name_key ON groceries (name_key);
@@ -0,0 +1,48 @@
+package com.humanoo.grocery.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(2, 10, Duration.ofNanos(TARGET), clock::get);
+
+    @Test
+    void tryAcquire_ShouldRejectAtLimitUntilReleased() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void onLatency_ShouldBackOffOncePerIntervalAndRecover() {
+        limiter.onLatency(TARGET * 5);
+        // same interval: one signal, not two
+        limiter.onLatency(TARGET * 5);
+        assertEquals(9, limiter.limit());
+
+        for (int i = 0; i < 20; i++) {
+            clock.addAndGet(TARGET);
+            limiter.onLatency(TARGET * 5);
+        }
+        assertEquals(2, limiter.limit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onLatency(TARGET / 2);
+        }
+        assertEquals(10, limiter.limit());
+    }
+}
@@ -0,0 +1,73 @@
+package com.humanoo.grocery.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    private static final List<String> SCAN_PATHS = List.of("/api/groceries/search", "/api/groceries/filter");
+
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(Map.of(
+            ClientRateLimiter.Tier.READ, new ClientRateLimiter.Limit(1, 0.001),
+            ClientRateLimiter.Tier.SCAN, new ClientRateLimiter.Limit(1, 0.001),
+            ClientRateLimiter.Tier.WRITE, new ClientRateLimiter.Limit(1, 0.001)),
+            Duration.ofMinutes(1), 1000);
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter =
+            new AdaptiveConcurrencyLimiter(10, 10, Duration.ofSeconds(1));
+
+    @Test
+    void preHandle_ShouldGiveClientsBehindOneProxyTheirOwnBucket_WhenClientHeaderIsSet() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(rateLimiter, "X-Client-Id",
+                concurrencyLimiter, SCAN_PATHS, () -> null);
+
+        assertTrue(interceptor.preHandle(request("/api/groceries/1", "alice"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("/api/groceries/1", "bob"), new MockHttpServletResponse(), null));
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> interceptor.preHandle(request("/api/groceries/1", "alice"), new MockHttpServletResponse(),
+                        null));
+        assertEquals(429, rejected.getStatus().value());
+    }
+
+    @Test
+    void preHandle_ShouldOnlyApplyConcurrencyLimit_WhenRateLimitingIsOff() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(null, null, concurrencyLimiter,
+                SCAN_PATHS, () -> null);
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = request("/api/groceries/search", null);
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+            interceptor.afterCompletion(request, new MockHttpServletResponse(), null, null);
+        }
+    }
+
+    @Test
+    void tierOf_ShouldTreatOnlyPagedListAsRead() {
+        AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(rateLimiter, null,
+                concurrencyLimiter, SCAN_PATHS, () -> null);
+        MockHttpServletRequest page = request("/api/groceries", null);
+        page.setParameter("limit", "50");
+
+        assertEquals(ClientRateLimiter.Tier.SCAN, interceptor.tierOf(request("/api/groceries", null)));
+        assertEquals(ClientRateLimiter.Tier.READ, interceptor.tierOf(page));
+        assertEquals(ClientRateLimiter.Tier.READ, interceptor.tierOf(request("/api/groceries/1", null)));
+        assertEquals(ClientRateLimiter.Tier.SCAN, interceptor.tierOf(request("/api/groceries/search", null)));
+        assertEquals("10.0.0.1", interceptor.clientOf(request("/api/groceries", "alice")));
+    }
+
+    private static MockHttpServletRequest request(String path, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr("10.0.0.1");
+        if (clientId != null) {
+            request.addHeader("X-Client-Id", clientId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,24 @@
+package com.humanoo.grocery.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogETagInterceptorTest {
+
+    private static final String TAG = "W/\"catalog-x-7\"";
+
+    @Test
+    void forRepresentation_ShouldKeepBareTagForJson() {
+        assertEquals(TAG, CatalogETagInterceptor.forRepresentation(TAG, null));
+        assertEquals(TAG, CatalogETagInterceptor.forRepresentation(TAG, "application/json, application/cbor"));
+        assertEquals(TAG, CatalogETagInterceptor.forRepresentation(TAG, "not a media type;;"));
+    }
+
+    @Test
+    void forRepresentation_ShouldSuffixCompactEncodings() {
+        assertEquals("W/\"catalog-x-7-cbor\"", CatalogETagInterceptor.forRepresentation(TAG, "application/cbor"));
+        assertEquals("W/\"catalog-x-7-columnar\"", CatalogETagInterceptor.forRepresentation(TAG,
+                "application/vnd.humanoo.columnar+json;q=0.9, application/json;q=0.5"));
+    }
+}
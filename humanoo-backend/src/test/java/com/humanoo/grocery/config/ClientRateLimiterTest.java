@@ -0,0 +1,50 @@
+package com.humanoo.grocery.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    private final ClientRateLimiter limiter = new ClientRateLimiter(Map.of(
+            ClientRateLimiter.Tier.READ, new ClientRateLimiter.Limit(10, 10),
+            ClientRateLimiter.Tier.SCAN, new ClientRateLimiter.Limit(2, 1),
+            ClientRateLimiter.Tier.WRITE, new ClientRateLimiter.Limit(1, 1)),
+            Duration.ofMinutes(1), 1000, clock::get);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenRefillAtRate() {
+        assertEquals(0, limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN));
+        assertEquals(0, limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN));
+
+        long wait = limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClientAndTier() {
+        limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN);
+        limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN);
+
+        assertTrue(limiter.tryAcquire("a", ClientRateLimiter.Tier.SCAN) > 0);
+        assertEquals(0, limiter.tryAcquire("a", ClientRateLimiter.Tier.READ));
+        assertEquals(0, limiter.tryAcquire("b", ClientRateLimiter.Tier.SCAN));
+        assertEquals(3, limiter.clientCount());
+    }
+
+    @Test
+    void limit_ShouldRejectNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter.Limit(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter.Limit(1, 0));
+    }
+}
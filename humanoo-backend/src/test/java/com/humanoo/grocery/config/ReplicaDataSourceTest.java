@@ -0,0 +1,178 @@
+package com.humanoo.grocery.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Separate in-memory H2 databases stand in for the primary and two replicas; each
+ * one knows its own name, so a query shows where a connection came from.
+ */
+class ReplicaDataSourceTest {
+
+    private final DataSource primary = database("primary");
+    private final DataSource replicaA = database("replica_a");
+    private final DataSource replicaB = database("replica_b");
+
+    private ReplicaDataSource replicas;
+
+    @BeforeEach
+    void setUp() {
+        // the scheduled check never fires during a test; checkHealth() is called directly
+        replicas = replicaDataSource(replicaA, replicaB);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReplicaDataSource.unpin();
+        replicas.close();
+    }
+
+    @Test
+    void getConnection_ShouldRoundRobinOverReplicas() throws SQLException {
+        assertEquals(List.of("replica_a", "replica_b", "replica_a"),
+                List.of(nodeOf(replicas), nodeOf(replicas), nodeOf(replicas)));
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimaryWhilePinned() throws SQLException {
+        ReplicaDataSource.pinToPrimary();
+
+        assertEquals("primary", nodeOf(replicas));
+    }
+
+    @Test
+    void getConnection_ShouldSkipFailedReplicaUntilHealthCheckPasses() throws Exception {
+        DataSource flaky = mock(DataSource.class);
+        when(flaky.getConnection())
+                .thenThrow(new SQLException("connection refused"))
+                .thenAnswer(invocation -> replicaA.getConnection());
+        replicas.close();
+        replicas = replicaDataSource(flaky, replicaB);
+
+        assertEquals("replica_b", nodeOf(replicas));
+        assertEquals(1, replicas.healthyReplicas());
+        assertEquals("replica_b", nodeOf(replicas));
+
+        replicas.checkHealth();
+        assertEquals(2, replicas.healthyReplicas());
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimaryWithoutHealthyReplica() throws Exception {
+        DataSource down = mock(DataSource.class);
+        when(down.getConnection()).thenThrow(new SQLException("connection refused"));
+        replicas.close();
+        replicas = replicaDataSource(down);
+
+        assertEquals("primary", nodeOf(replicas));
+        assertEquals(0, replicas.healthyReplicas());
+    }
+
+    @Test
+    void lazyProxy_ShouldRouteReadOnlyConnectionsToReplicas() throws SQLException {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(replicas);
+
+        try (Connection connection = routing.getConnection()) {
+            // what a readOnly transaction does before its first statement
+            connection.setReadOnly(true);
+            assertEquals("replica_a", nodeOf(connection));
+        }
+        try (Connection connection = routing.getConnection()) {
+            assertEquals("primary", nodeOf(connection));
+        }
+    }
+
+    @Test
+    void readYourWrites_ShouldPinWritesAndTheWritersNextReads() {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        MockHttpServletResponse created = new MockHttpServletResponse();
+        created.setStatus(201);
+
+        MockHttpServletRequest write = request("POST", "10.0.0.1");
+        interceptor.preHandle(write, created, null);
+        assertTrue(ReplicaDataSource.isPinnedToPrimary());
+        interceptor.afterCompletion(write, created, null, null);
+        assertFalse(ReplicaDataSource.isPinnedToPrimary());
+
+        interceptor.preHandle(request("GET", "10.0.0.1"), new MockHttpServletResponse(), null);
+        assertTrue(ReplicaDataSource.isPinnedToPrimary());
+        ReplicaDataSource.unpin();
+
+        interceptor.preHandle(request("GET", "10.0.0.2"), new MockHttpServletResponse(), null);
+        assertFalse(ReplicaDataSource.isPinnedToPrimary());
+    }
+
+    @Test
+    void readYourWrites_ShouldIgnoreFailedWrites() {
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+        MockHttpServletResponse conflict = new MockHttpServletResponse();
+        conflict.setStatus(409);
+
+        MockHttpServletRequest write = request("PUT", "10.0.0.1");
+        interceptor.preHandle(write, conflict, null);
+        interceptor.afterCompletion(write, conflict, null, null);
+
+        assertFalse(interceptor.isRecentWriter("10.0.0.1"));
+    }
+
+    private ReplicaDataSource replicaDataSource(DataSource... dataSources) {
+        Map<String, DataSource> byName = new LinkedHashMap<>();
+        for (DataSource dataSource : dataSources) {
+            byName.put("replica-" + (byName.size() + 1), dataSource);
+        }
+        return new ReplicaDataSource(primary, byName, Duration.ofHours(1));
+    }
+
+    private static MockHttpServletRequest request(String method, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/groceries");
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(32))");
+            statement.execute("DELETE FROM node");
+            statement.execute("INSERT INTO node VALUES ('" + name + "')");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+
+    private static String nodeOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return nodeOf(connection);
+        }
+    }
+
+    private static String nodeOf(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT name FROM node")) {
+            rows.next();
+            return rows.getString(1);
+        }
+    }
+}
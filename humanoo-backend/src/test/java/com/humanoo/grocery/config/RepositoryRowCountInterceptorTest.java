@@ -0,0 +1,58 @@
+package com.humanoo.grocery.config;
+
+import com.humanoo.grocery.repository.GroceryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryRowCountInterceptorTest {
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final RepositoryRowCountInterceptor interceptor =
+            new RepositoryRowCountInterceptor(() -> registry, "GroceryRepository");
+
+    @Test
+    void invoke_ShouldRecordRowsReturnedPerMethod() throws Throwable {
+        when(invocation.proceed()).thenReturn(List.of("a", "b", "c"));
+        when(invocation.getMethod()).thenReturn(GroceryRepository.class.getMethod("findAllResponses"));
+
+        assertEquals(List.of("a", "b", "c"), interceptor.invoke(invocation));
+
+        DistributionSummary rows = registry.get(RepositoryRowCountInterceptor.METRIC)
+                .tag("repository", "GroceryRepository")
+                .tag("method", "findAllResponses")
+                .summary();
+        assertEquals(1, rows.count());
+        assertEquals(3.0, rows.totalAmount());
+    }
+
+    @Test
+    void invoke_ShouldSkipResultsWithoutRowCount() throws Throwable {
+        when(invocation.proceed()).thenReturn(42L);
+
+        interceptor.invoke(invocation);
+
+        assertTrue(registry.find(RepositoryRowCountInterceptor.METRIC).summaries().isEmpty());
+    }
+
+    @Test
+    void rowCount_ShouldCountOptionalAsZeroOrOne() {
+        assertEquals(1, RepositoryRowCountInterceptor.rowCount(Optional.of("a")));
+        assertEquals(0, RepositoryRowCountInterceptor.rowCount(Optional.empty()));
+    }
+}
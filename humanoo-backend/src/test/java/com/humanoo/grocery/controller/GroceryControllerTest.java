@@ -1,27 +1,64 @@
 package com.humanoo.grocery.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.humanoo.grocery.config.GroceryColumnarHttpMessageConverter;
+import com.humanoo.grocery.dto.CategoryStatsResponse;
 import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryHistoryEntry;
+import com.humanoo.grocery.dto.GroceryImportJob;
+import com.humanoo.grocery.dto.GroceryImportStatus;
+import com.humanoo.grocery.dto.GroceryPage;
 import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySyncResponse;
+import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.service.GroceryBatchService;
+import com.humanoo.grocery.service.GroceryChangeFeed;
+import com.humanoo.grocery.service.GroceryExportService;
+import com.humanoo.grocery.service.GroceryHistoryLog;
+import com.humanoo.grocery.service.GroceryImportService;
 import com.humanoo.grocery.service.GroceryService;
+import com.humanoo.grocery.service.GroceryStockService;
+import com.humanoo.grocery.service.GrocerySyncService;
+import com.humanoo.grocery.service.InsufficientStockException;
+import com.humanoo.grocery.service.PreconditionFailedException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(GroceryController.class)
+@WebMvcTest(value = GroceryController.class, properties = "grocery.rate-limit.enabled=true")
 class GroceryControllerTest {
 
     @Autowired
@@ -30,6 +67,27 @@ class GroceryControllerTest {
     @MockBean
     private GroceryService groceryService;
 
+    @MockBean
+    private GroceryExportService groceryExportService;
+
+    @MockBean
+    private GroceryBatchService groceryBatchService;
+
+    @MockBean
+    private GroceryStockService groceryStockService;
+
+    @MockBean
+    private GroceryChangeFeed groceryChangeFeed;
+
+    @MockBean
+    private GroceryHistoryLog groceryHistoryLog;
+
+    @MockBean
+    private GroceryImportService groceryImportService;
+
+    @MockBean
+    private GrocerySyncService grocerySyncService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -115,4 +173,295 @@ class GroceryControllerTest {
         mockMvc.perform(delete("/api/groceries/1"))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllGroceries_ShouldReturnNextCursorHeader_WhenPaged() throws Exception {
+        GroceryResponse grocery = GroceryResponse.builder()
+                .id(1L)
+                .name("Test Apple")
+                .build();
+
+        when(groceryService.getAllGroceries(isNull(), any(Integer.class)))
+                .thenReturn(GroceryPage.builder().content(List.of(grocery)).nextCursor("abc").build());
+
+        mockMvc.perform(get("/api/groceries").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "abc"))
+                .andExpect(jsonPath("$[0].name").value("Test Apple"));
+    }
+
+    @Test
+    void exportGroceries_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(groceryExportService).exportGroceries(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/groceries/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void applyBatch_ShouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/groceries/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllGroceries_ShouldReturnNotModified_WhenCatalogUnchanged() throws Exception {
+        when(groceryService.getCatalogETag()).thenReturn("W/\"catalog-x-7\"");
+
+        mockMvc.perform(get("/api/groceries").header("If-None-Match", "W/\"catalog-x-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"catalog-x-7\""));
+
+        verify(groceryService, never()).getAllGroceries();
+    }
+
+    @Test
+    void getGroceryById_ShouldReturnItemETag() throws Exception {
+        GroceryResponse grocery = GroceryResponse.builder().id(1L).name("Test Apple").version(4L).build();
+        when(groceryService.getGroceryById(1L)).thenReturn(Optional.of(grocery));
+
+        mockMvc.perform(get("/api/groceries/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+
+        // If-None-Match compares weakly: the weak form of the same tag matches too
+        mockMvc.perform(get("/api/groceries/1").header("If-None-Match", "W/\"1-4\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updateGrocery_ShouldReturnPreconditionFailed_WhenIfMatchIsStale() throws Exception {
+        when(groceryService.updateGrocery(eq(1L), any(GroceryUpdateRequest.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("stale"));
+
+        mockMvc.perform(put("/api/groceries/1")
+                .header("If-Match", "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\":4.99}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateGrocery_ShouldReturnPreconditionFailed_WhenIfMatchIsWeak() throws Exception {
+        mockMvc.perform(put("/api/groceries/1")
+                .header("If-Match", "W/\"1-4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\":4.99}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(groceryService, never()).updateGrocery(any(), any(GroceryUpdateRequest.class), any());
+    }
+
+    @Test
+    void updateGrocery_ShouldReturnConflict_WhenConcurrentWriteWinsWithoutIfMatch() throws Exception {
+        when(groceryService.updateGrocery(eq(1L), any(GroceryUpdateRequest.class), isNull()))
+                .thenThrow(new OptimisticLockingFailureException("lost race"));
+
+        mockMvc.perform(put("/api/groceries/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\":4.99}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void adjustStock_ShouldReturnConflict_WhenStockInsufficient() throws Exception {
+        when(groceryStockService.adjustStock(1L, -100)).thenThrow(new InsufficientStockException(1L, -100));
+
+        mockMvc.perform(post("/api/groceries/1/stock")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"delta\":-100}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void filterGroceries_ShouldCombineAllCriteriaIntoOneQuery() throws Exception {
+        when(groceryService.filterGroceries(any(GroceryFilterCriteria.class))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/groceries/filter")
+                .param("category", "FRUITS", "DAIRY")
+                .param("minPrice", "1.50")
+                .param("lowStock", "true")
+                .param("sort", "price")
+                .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+        verify(groceryService).filterGroceries(argThat((GroceryFilterCriteria criteria) ->
+                criteria.getCategories().equals(List.of("FRUITS", "DAIRY"))
+                        && criteria.getMinPrice().compareTo(new BigDecimal("1.50")) == 0
+                        && criteria.getMaxPrice() == null
+                        && criteria.getStockBelow() == 10
+                        && "price".equals(criteria.getSortBy())
+                        && criteria.isAscending()));
+    }
+
+    @Test
+    void getGroceriesByPriceRange_ShouldPassPriceSortToService() throws Exception {
+        when(groceryService.filterGroceries(any(GroceryFilterCriteria.class), isNull(), eq(5)))
+                .thenReturn(GroceryPage.builder().content(List.of()).build());
+
+        mockMvc.perform(get("/api/groceries/price-range")
+                .param("minPrice", "1.00")
+                .param("maxPrice", "9.99")
+                .param("category", "DAIRY")
+                .param("sort", "price")
+                .param("direction", "asc")
+                .param("limit", "5"))
+                .andExpect(status().isOk());
+
+        verify(groceryService).filterGroceries(argThat((GroceryFilterCriteria criteria) ->
+                criteria.getCategories().equals(List.of("DAIRY"))
+                        && criteria.getMaxPrice().compareTo(new BigDecimal("9.99")) == 0
+                        && "price".equals(criteria.getSortBy())
+                        && criteria.isAscending()), isNull(), eq(5));
+    }
+
+    @Test
+    void streamChanges_ShouldPassLastEventIdToFeed() throws Exception {
+        when(groceryChangeFeed.subscribe("abc-7")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/groceries/changes")
+                .header("Last-Event-ID", "abc-7")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(groceryChangeFeed).subscribe("abc-7");
+    }
+
+    @Test
+    void getAllGroceries_ShouldWriteColumnarJson_WhenRequested() throws Exception {
+        when(groceryService.getAllGroceries()).thenReturn(List.of(
+                GroceryResponse.builder().id(1L).name("Apples").price(new BigDecimal("2.99")).build(),
+                GroceryResponse.builder().id(2L).name("Milk").price(new BigDecimal("3.49")).build()));
+
+        mockMvc.perform(get("/api/groceries").accept(GroceryColumnarHttpMessageConverter.COLUMNAR_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(GroceryColumnarHttpMessageConverter.COLUMNAR_JSON))
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.id[1]").value(2))
+                .andExpect(jsonPath("$.name[1]").value("Milk"))
+                .andExpect(jsonPath("$.price[0]").value(2.99));
+    }
+
+    @Test
+    void getAllGroceries_ShouldWriteCbor_WhenRequested() throws Exception {
+        when(groceryService.getAllGroceries()).thenReturn(List.of(
+                GroceryResponse.builder().id(1L).name("Apples").build()));
+
+        MvcResult result = mockMvc.perform(get("/api/groceries").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Apples", body.get(0).get("name").asText());
+    }
+
+    @Test
+    void getGroceryHistory_ShouldPassTimeRange() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        when(groceryHistoryLog.findHistory(1L, from, null, null)).thenReturn(List.of(
+                GroceryHistoryEntry.builder().operation(GroceryChangeType.UPDATED).quantity(7).build()));
+
+        mockMvc.perform(get("/api/groceries/1/history").param("from", "2024-05-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].operation").value("UPDATED"))
+                .andExpect(jsonPath("$[0].quantity").value(7));
+    }
+
+    @Test
+    void importGroceries_ShouldAcceptBodyAndReturnRunningJob() throws Exception {
+        when(groceryImportService.submitCsv(any())).thenReturn(GroceryImportJob.builder()
+                .jobId("job-1").status(GroceryImportStatus.RUNNING).build());
+
+        mockMvc.perform(post("/api/groceries/import")
+                .contentType("text/csv")
+                .content("name,price,quantity,category\nKiwi,0.50,100,FRUITS\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/groceries/import/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    void getImportJob_ShouldReturnNotFound_WhenJobUnknown() throws Exception {
+        when(groceryImportService.getJob("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/groceries/import/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCategoryStats_ShouldPassFilters() throws Exception {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(List.of("DAIRY"))
+                .maxPrice(new BigDecimal("5.00"))
+                .stockBelow(10)
+                .build();
+        when(groceryService.getCategoryStats(criteria)).thenReturn(List.of(CategoryStatsResponse.builder()
+                .category("DAIRY").itemCount(3).build()));
+
+        mockMvc.perform(get("/api/groceries/stats")
+                .param("category", "DAIRY")
+                .param("maxPrice", "5.00")
+                .param("stockBelow", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category").value("DAIRY"))
+                .andExpect(jsonPath("$[0].itemCount").value(3));
+    }
+
+    @Test
+    void syncGroceries_ShouldReturnChangesAndNextToken() throws Exception {
+        when(grocerySyncService.sync("abc", 10)).thenReturn(GrocerySyncResponse.builder()
+                .upserts(List.of(GroceryResponse.builder().id(1L).name("Apples").build()))
+                .deleted(List.of(2L))
+                .token("def")
+                .build());
+
+        mockMvc.perform(get("/api/groceries/sync").param("since", "abc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts[0].name").value("Apples"))
+                .andExpect(jsonPath("$.deleted[0]").value(2))
+                .andExpect(jsonPath("$.token").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void searchGroceries_ShouldReturnTooManyRequests_WhenClientExceedsScanLimit() throws Exception {
+        when(groceryService.searchGroceriesByName("app")).thenReturn(List.of());
+        // own address, so the other tests keep a full bucket
+        RequestPostProcessor client = request -> {
+            request.setRemoteAddr("10.0.0.99");
+            return request;
+        };
+
+        // the bucket refills while the loop runs, so count until the first rejection
+        MvcResult rejected = null;
+        int admitted = 0;
+        while (rejected == null && admitted < 200) {
+            MvcResult result = mockMvc.perform(get("/api/groceries/search").param("name", "app").with(client))
+                    .andReturn();
+            if (result.getResponse().getStatus() == 429) {
+                rejected = result;
+            } else {
+                admitted++;
+            }
+        }
+
+        assertNotNull(rejected);
+        assertTrue(admitted >= 20);
+        assertNotNull(rejected.getResponse().getHeader("Retry-After"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.humanoo.grocery.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryDictionaryTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categories (id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "name VARCHAR(50) NOT NULL UNIQUE)");
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('FRUITS'), ('DAIRY')");
+    }
+
+    @Test
+    void idOf_ShouldRememberUnknownNamesInsteadOfReloading() {
+        CategoryDictionary dictionary = new CategoryDictionary(dataSource, Duration.ofMinutes(1));
+        assertEquals(CategoryDictionary.UNKNOWN, dictionary.idOf("SNACKS"));
+
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('SNACKS')");
+
+        assertEquals(CategoryDictionary.UNKNOWN, dictionary.idOf("SNACKS"));
+        assertEquals("FRUITS", dictionary.nameOf(dictionary.idOf("FRUITS")));
+    }
+
+    @Test
+    void idOf_ShouldPickUpCategoriesAddedElsewhere_OnceUnknownNamesExpire() {
+        CategoryDictionary dictionary = new CategoryDictionary(dataSource, Duration.ZERO);
+        assertEquals(CategoryDictionary.UNKNOWN, dictionary.idOf("SNACKS"));
+
+        jdbcTemplate.update("INSERT INTO categories (name) VALUES ('SNACKS')");
+
+        assertNotEquals(CategoryDictionary.UNKNOWN, dictionary.idOf("SNACKS"));
+    }
+
+    @Test
+    void register_ShouldKeepNewCategoryPrivateToItsTransactionUntilCommit() {
+        CategoryDictionary dictionary = new CategoryDictionary(dataSource, Duration.ZERO);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transaction.executeWithoutResult(status -> {
+            int id = dictionary.register("SNACKS");
+            assertEquals(id, dictionary.idOf("SNACKS"));
+            assertEquals("SNACKS", dictionary.nameOf(id));
+            status.setRollbackOnly();
+        });
+        assertEquals(CategoryDictionary.UNKNOWN, dictionary.idOf("SNACKS"));
+
+        int committed = transaction.execute(status -> dictionary.register("SNACKS"));
+        assertEquals(committed, dictionary.idOf("SNACKS"));
+        assertEquals(3, dictionary.size());
+    }
+
+    @Test
+    void register_ShouldReadTheIdBack_WhenAnotherTransactionAddsTheSameCategory() throws Exception {
+        CategoryDictionary dictionary = new CategoryDictionary(dataSource, Duration.ZERO);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CountDownLatch registered = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            int id = dictionary.register("SNACKS");
+            registered.countDown();
+            await(commit);
+            return id;
+        }));
+        assertTrue(registered.await(5, TimeUnit.SECONDS));
+        // the second insert blocks on the first one's uncommitted row until it commits
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(
+                () -> transaction.execute(status -> dictionary.register("SNACKS")));
+        Thread.sleep(200);
+        commit.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories", Integer.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.humanoo.grocery.repository;
+
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.model.Grocery;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the SQL generated for the common /filter combinations through H2's EXPLAIN and
+ * fails if any of them falls back to a full table scan. A new filter or a dropped
+ * index on {@link Grocery} shows up here rather than as a slow endpoint.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.humanoo.grocery.repository.GroceryQueryPlanTest$CapturingInspector")
+@Import({ CategoryDictionary.class, ChangeSequenceWatermark.class })
+class GroceryQueryPlanTest {
+
+    private static final int ROWS = 5000;
+    private static final int CATEGORIES = 50;
+
+    @Autowired
+    private GroceryRepository groceryRepository;
+
+    @Autowired
+    private CategoryDictionary categoryDictionary;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // ANALYZE below commits H2's transaction, so the test rollback does not undo
+        // the previous test's rows; start from an empty table every time
+        groceryRepository.deleteAllInBatch();
+
+        List<Grocery> groceries = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Grocery grocery = new Grocery();
+            grocery.setName("Item " + i);
+            grocery.setPrice(BigDecimal.valueOf(1 + (i * 37L) % 50_000, 2));
+            // roughly one row in a hundred is low on stock
+            grocery.setQuantity(i % 100 == 0 ? i % 7 : 50 + i % 500);
+            grocery.setCategory("CATEGORY_" + (i % CATEGORIES));
+            grocery.setUnit("PIECE");
+            groceries.add(grocery);
+        }
+        groceryRepository.saveAllAndFlush(groceries);
+        jdbcTemplate.execute("ANALYZE");
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void singleCategory_ShouldUseIndex() {
+        assertIndexed(GroceryFilterCriteria.builder()
+                .categories(List.of("CATEGORY_7"))
+                .build());
+    }
+
+    @Test
+    void multipleCategories_ShouldUseIndex() {
+        assertIndexed(GroceryFilterCriteria.builder()
+                .categories(List.of("CATEGORY_7", "CATEGORY_8", "CATEGORY_9"))
+                .build());
+    }
+
+    @Test
+    void priceRange_ShouldUseIndex() {
+        assertIndexed(GroceryFilterCriteria.builder()
+                .minPrice(new BigDecimal("10.00"))
+                .maxPrice(new BigDecimal("12.00"))
+                .build());
+    }
+
+    @Test
+    void categoryAndPriceRange_ShouldUseIndex() {
+        assertIndexed(GroceryFilterCriteria.builder()
+                .categories(List.of("CATEGORY_7"))
+                .minPrice(new BigDecimal("10.00"))
+                .maxPrice(new BigDecimal("200.00"))
+                .build());
+    }
+
+    @Test
+    void lowStock_ShouldUseIndex() {
+        assertIndexed(GroceryFilterCriteria.builder()
+                .stockBelow(5)
+                .build());
+    }
+
+    @Test
+    void categoryPage_ShouldUseIndex() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(List.of("CATEGORY_7"))
+                .build();
+        groceryRepository.findMatching(criteria,
+                new GroceryCursor(LocalDateTime.of(2024, 4, 30, 10, 0), 2500L), 51);
+        assertNoTableScan();
+    }
+
+    @Test
+    void changesSince_ShouldUseIndex() {
+        groceryRepository.findChangedSince(ROWS - 50, PageRequest.of(0, 51));
+        assertNoTableScan();
+    }
+
+    @Test
+    void update_ShouldAdvanceChangeSequence() {
+        Grocery grocery = groceryRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        long before = changeSequenceOf(grocery.getId());
+
+        grocery.setQuantity(grocery.getQuantity() + 1);
+        groceryRepository.saveAndFlush(grocery);
+
+        assertTrue(changeSequenceOf(grocery.getId()) > before);
+    }
+
+    @Test
+    void categories_ShouldBeStoredAsIdsAndReadBackAsNames() {
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT category_id FROM groceries WHERE name = 'Item 7'", Integer.class);
+
+        assertEquals(categoryDictionary.idOf("CATEGORY_7"), stored);
+        assertEquals("CATEGORY_7", groceryRepository.findByNameIgnoreCase("Item 7").orElseThrow().getCategory());
+        assertEquals(ROWS / CATEGORIES, groceryRepository.findResponsesByCategory("CATEGORY_7").size());
+    }
+
+    @Test
+    void newCategory_ShouldBeAddedOnSave() {
+        Grocery grocery = groceryRepository.findByNameIgnoreCase("Item 7").orElseThrow();
+        grocery.setCategory("NEW_CATEGORY");
+        groceryRepository.saveAndFlush(grocery);
+
+        assertNotEquals(CategoryDictionary.UNKNOWN, categoryDictionary.idOf("NEW_CATEGORY"));
+        assertEquals(List.of("Item 7"), groceryRepository.findByCategory("NEW_CATEGORY").stream()
+                .map(Grocery::getName).toList());
+    }
+
+    @Test
+    void unknownCategory_ShouldMatchNothingWithoutBeingAdded() {
+        int categories = categoryDictionary.size();
+
+        assertTrue(groceryRepository.findMatching(GroceryFilterCriteria.builder()
+                .categories(List.of("CATEGORY_7", "NO_SUCH_CATEGORY"))
+                .build(), null, null).stream().allMatch(grocery -> grocery.getCategory().equals("CATEGORY_7")));
+        assertEquals(0L, groceryRepository.countByCategory("NO_SUCH_CATEGORY"));
+        assertEquals(categories, categoryDictionary.size());
+    }
+
+    @Test
+    void allCategories_ShouldListCategoriesInUseByName() {
+        groceryRepository.deleteAllInBatch(groceryRepository.findByCategory("CATEGORY_7"));
+
+        List<String> categories = groceryRepository.findAllCategories();
+
+        assertEquals(CATEGORIES - 1, categories.size());
+        assertFalse(categories.contains("CATEGORY_7"));
+        assertEquals(categories.stream().sorted().toList(), categories);
+    }
+
+    @Test
+    void adjustQuantity_ShouldNotMatch_WhenResultLeavesIntegerRange() {
+        Long id = groceryRepository.findByNameIgnoreCase("Item 7").orElseThrow().getId();
+        jdbcTemplate.update("UPDATE groceries SET quantity = ? WHERE id = ?", Integer.MAX_VALUE - 1, id);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(0, groceryRepository.adjustQuantity(id, Integer.MAX_VALUE, now));
+        assertEquals(0, groceryRepository.adjustQuantity(id, Integer.MIN_VALUE, now));
+        assertEquals(1, groceryRepository.adjustQuantity(id, 1, now));
+        assertEquals(Integer.MAX_VALUE, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM groceries WHERE id = ?", Integer.class, id));
+    }
+
+    private long changeSequenceOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT change_seq FROM groceries WHERE id = ?", Long.class, id);
+    }
+
+    private void assertIndexed(GroceryFilterCriteria criteria) {
+        groceryRepository.findMatching(criteria, null, null);
+        assertNoTableScan();
+    }
+
+    private void assertNoTableScan() {
+        List<String> statements = CapturingInspector.STATEMENTS;
+        assertFalse(statements.isEmpty(), "no SQL was captured");
+        String sql = statements.get(statements.size() - 1);
+        String plan = explain(sql);
+        assertFalse(plan.contains("tableScan"), "full scan for:\n" + sql + "\nplan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                bindPlaceholders(statement);
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    // EXPLAIN needs every parameter bound, but H2 plans from index statistics rather
+    // than from the values, so any value of the right type will do.
+    private void bindPlaceholders(PreparedStatement statement) throws java.sql.SQLException {
+        ParameterMetaData metaData = statement.getParameterMetaData();
+        for (int i = 1; i <= metaData.getParameterCount(); i++) {
+            switch (metaData.getParameterType(i)) {
+                case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE ->
+                        statement.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+                case Types.DECIMAL, Types.NUMERIC, Types.DOUBLE ->
+                        statement.setBigDecimal(i, BigDecimal.ONE);
+                case Types.INTEGER, Types.BIGINT, Types.SMALLINT ->
+                        statement.setInt(i, 1);
+                default -> statement.setString(i, "1");
+            }
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("groceries") && sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
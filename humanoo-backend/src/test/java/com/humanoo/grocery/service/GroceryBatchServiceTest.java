@@ -0,0 +1,107 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.BatchOperationType;
+import com.humanoo.grocery.dto.GroceryBatchOperation;
+import com.humanoo.grocery.dto.GroceryBatchRequest;
+import com.humanoo.grocery.dto.GroceryBatchResponse;
+import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroceryBatchServiceTest {
+
+    @Mock
+    private GroceryRepository groceryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GroceryBatchService groceryBatchService;
+
+    private Grocery existing;
+
+    @BeforeEach
+    void setUp() {
+        GroceryService groceryService = new GroceryService(groceryRepository,
+                new GroceryCache(100, 10, Duration.ofMinutes(1)), new GrocerySearchIndex(), new GroceryPriceIndex(),
+                new GroceryColumnStore(false, 1), new LowStockMonitor(eventPublisher, 10, Map.of(), 100),
+                new GroceryCategoryStats(), new CatalogVersion(), eventPublisher);
+        groceryBatchService = new GroceryBatchService(groceryRepository, groceryService, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator());
+
+        existing = new Grocery();
+        existing.setId(1L);
+        existing.setName("Bananas");
+        existing.setPrice(new BigDecimal("2.99"));
+        existing.setQuantity(50);
+        existing.setCategory("FRUITS");
+    }
+
+    @Test
+    void applyBatch_ShouldReportPerItemResults() {
+        GroceryCreateRequest duplicate = GroceryCreateRequest.builder()
+                .name("bananas").price(new BigDecimal("1.00")).quantity(1).category("FRUITS").build();
+        GroceryCreateRequest fresh = GroceryCreateRequest.builder()
+                .name("Kiwi").price(new BigDecimal("0.50")).quantity(100).category("FRUITS").build();
+        GroceryUpdateRequest priceChange = GroceryUpdateRequest.builder().price(new BigDecimal("3.49")).build();
+
+        when(groceryRepository.findExistingLowerCaseNames(anyCollection())).thenReturn(List.of("bananas"));
+        when(groceryRepository.findAllById(anyCollection())).thenReturn(List.of(existing));
+        when(groceryRepository.save(any(Grocery.class))).thenAnswer(invocation -> {
+            Grocery grocery = invocation.getArgument(0);
+            grocery.setId(2L);
+            return grocery;
+        });
+
+        GroceryBatchResponse response = groceryBatchService.applyBatch(new GroceryBatchRequest(List.of(
+                GroceryBatchOperation.builder().type(BatchOperationType.CREATE).create(duplicate).build(),
+                GroceryBatchOperation.builder().type(BatchOperationType.CREATE).create(fresh).build(),
+                GroceryBatchOperation.builder().type(BatchOperationType.UPDATE).id(1L).update(priceChange).build(),
+                GroceryBatchOperation.builder().type(BatchOperationType.DELETE).id(99L).build())));
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertFalse(response.getResults().get(0).isSuccess());
+        assertEquals(2L, response.getResults().get(1).getId());
+        assertEquals(new BigDecimal("3.49"), existing.getPrice());
+        assertFalse(response.getResults().get(3).isSuccess());
+        verify(groceryRepository, times(1)).save(any(Grocery.class));
+        verify(groceryRepository).flush();
+        verify(groceryRepository, never()).existsByNameIgnoreCase(any());
+        verify(eventPublisher, times(2)).publishEvent(any(GroceryChangedEvent.class));
+    }
+
+    @Test
+    void applyBatch_ShouldRejectInvalidCreatePayload() {
+        GroceryCreateRequest invalid = GroceryCreateRequest.builder().name("Kiwi").build();
+
+        when(groceryRepository.findExistingLowerCaseNames(anyCollection())).thenReturn(List.of());
+
+        GroceryBatchResponse response = groceryBatchService.applyBatch(new GroceryBatchRequest(List.of(
+                GroceryBatchOperation.builder().type(BatchOperationType.CREATE).create(invalid).build())));
+
+        assertEquals(0, response.getSucceeded());
+        assertNotNull(response.getResults().get(0).getError());
+        verify(groceryRepository, never()).save(any(Grocery.class));
+    }
+}
@@ -0,0 +1,101 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroceryCategoryStatsTest {
+
+    private GroceryCategoryStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new GroceryCategoryStats();
+        stats.onGroceryChanged(GroceryChangedEvent.created(grocery(1L, "FRUITS", "2.99", 50)));
+        stats.onGroceryChanged(GroceryChangedEvent.created(grocery(2L, "FRUITS", "4.99", 25)));
+        stats.onGroceryChanged(GroceryChangedEvent.created(grocery(3L, "DAIRY", "3.99", 15)));
+    }
+
+    @Test
+    void getStats_ShouldAggregatePerCategory() {
+        CategoryStatsResponse fruits = find("FRUITS");
+
+        assertEquals(2, fruits.getItemCount());
+        assertEquals(75, fruits.getTotalQuantity());
+        assertEquals(new BigDecimal("274.25"), fruits.getInventoryValue());
+        assertEquals(new BigDecimal("2.99"), fruits.getMinPrice());
+        assertEquals(new BigDecimal("4.99"), fruits.getMaxPrice());
+        assertEquals(new BigDecimal("3.99"), fruits.getAvgPrice());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldMoveItemsBetweenCategoriesAndDropEmptyOnes() {
+        stats.onGroceryChanged(GroceryChangedEvent.updated(grocery(2L, "FRUITS", "4.99", 25),
+                grocery(2L, "DAIRY", "5.49", 10)));
+        stats.onGroceryChanged(GroceryChangedEvent.deleted(1L, grocery(1L, "FRUITS", "2.99", 50)));
+
+        List<CategoryStatsResponse> result = stats.getStats();
+        assertEquals(1, result.size());
+        CategoryStatsResponse dairy = result.get(0);
+        assertEquals(2, dairy.getItemCount());
+        assertEquals(new BigDecimal("5.49"), dairy.getMaxPrice());
+        assertEquals(new BigDecimal("3.99"), dairy.getMinPrice());
+    }
+
+    @Test
+    void rebuild_ShouldCountChangeOnce_WhenItIsAlsoInTheScan() {
+        stats.beginRebuild();
+        GroceryResponse before = grocery(4L, "DAIRY", "1.99", 10);
+        GroceryResponse after = grocery(4L, "DAIRY", "1.99", 7);
+        after.setVersion(1L);
+        // committed before the scan read the row, listener ran after it
+        stats.onGroceryChanged(GroceryChangedEvent.updated(before, after));
+        stats.rebuild(List.of(grocery(3L, "DAIRY", "3.99", 15), after));
+
+        CategoryStatsResponse dairy = find("DAIRY");
+        assertEquals(2, dairy.getItemCount());
+        assertEquals(22, dairy.getTotalQuantity());
+        assertThrows(RuntimeException.class, () -> find("FRUITS"));
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesTheScanMissed() {
+        stats.beginRebuild();
+        List<GroceryResponse> scanned = List.of(grocery(1L, "FRUITS", "2.99", 50), grocery(3L, "DAIRY", "3.99", 15));
+        GroceryResponse moved = grocery(1L, "DAIRY", "2.99", 40);
+        moved.setVersion(1L);
+        stats.onGroceryChanged(GroceryChangedEvent.updated(scanned.get(0), moved));
+        stats.onGroceryChanged(GroceryChangedEvent.deleted(3L, scanned.get(1)));
+        stats.rebuild(scanned);
+
+        List<CategoryStatsResponse> result = stats.getStats();
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).getItemCount());
+        assertEquals(40, result.get(0).getTotalQuantity());
+    }
+
+    private CategoryStatsResponse find(String category) {
+        return stats.getStats().stream()
+                .filter(s -> s.getCategory().equals(category))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private GroceryResponse grocery(Long id, String category, String price, int quantity) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .category(category)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .version(0L)
+                .build();
+    }
+}
@@ -0,0 +1,153 @@
+package com.humanoo.grocery.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.humanoo.grocery.dto.GroceryChangeNotification;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.event.LowStockAlertType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroceryChangeFeedTest {
+
+    private GroceryChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new GroceryChangeFeed(new ObjectMapper(), 3, 10, Duration.ofMinutes(1), Duration.ofMinutes(1),
+                Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void toNotification_ShouldListOnlyChangedFields() {
+        GroceryResponse before = grocery(1L, "2.50", 10, 1L);
+        GroceryResponse after = grocery(1L, "2.5", 7, 2L);
+
+        GroceryChangeNotification notification = GroceryChangeFeed.toNotification(
+                GroceryChangedEvent.updated(before, after));
+
+        assertEquals(GroceryChangeType.UPDATED, notification.getOperation());
+        assertEquals(List.of("quantity"), notification.getChangedFields());
+        assertEquals(2L, notification.getVersion());
+    }
+
+    @Test
+    void changesAfter_ShouldReplayOnlyNewerEvents() {
+        for (long id = 1; id <= 3; id++) {
+            feed.onGroceryChanged(GroceryChangedEvent.created(grocery(id, "1.00", 5, 0L)));
+        }
+
+        List<GroceryChangeFeed.BufferedChange> missed = feed.changesAfter(feed.eventId(1));
+
+        assertEquals(2, missed.size());
+        assertEquals(2L, missed.get(0).notification().getId());
+        assertEquals(3L, missed.get(1).notification().getId());
+    }
+
+    @Test
+    void changesAfter_ShouldRequireResetWhenEventWasEvicted() {
+        for (long id = 1; id <= 5; id++) {
+            feed.onGroceryChanged(GroceryChangedEvent.created(grocery(id, "1.00", 5, 0L)));
+        }
+
+        assertNull(feed.changesAfter(feed.eventId(1)));
+        assertEquals(3, feed.changesAfter(feed.eventId(2)).size());
+        assertNull(feed.changesAfter("other-boot-4"));
+    }
+
+    @Test
+    void onLowStockAlert_ShouldShareSequenceWithChanges() {
+        feed.onGroceryChanged(GroceryChangedEvent.created(grocery(1L, "1.00", 5, 0L)));
+        feed.onLowStockAlert(LowStockAlert.builder().sequence(1L).type(LowStockAlertType.RAISED).groceryId(1L)
+                .quantity(5).threshold(10).build());
+
+        List<GroceryChangeFeed.BufferedChange> missed = feed.changesAfter(feed.eventId(1));
+
+        assertEquals(1, missed.size());
+        assertNull(missed.get(0).notification());
+    }
+
+    @Test
+    void publish_ShouldKeepDeliveringWhenStalledClientsPinEverySender() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // more stalled clients than sender threads
+            for (int i = 0; i < 5; i++) {
+                feed.subscribe(null, new StalledEmitter(release));
+            }
+            feed.onGroceryChanged(GroceryChangedEvent.created(grocery(1L, "1.00", 5, 0L)));
+            RecordingEmitter healthy = new RecordingEmitter();
+            feed.subscribe(null, healthy);
+
+            feed.onGroceryChanged(GroceryChangedEvent.created(grocery(2L, "1.00", 5, 0L)));
+
+            assertTrue(healthy.received.await(5, TimeUnit.SECONDS));
+            // every stalled client is disconnected once its own send passes the deadline
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (feed.subscriberCount() > 1 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, feed.subscriberCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private GroceryResponse grocery(Long id, String price, int quantity, Long version) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .category("FRUITS")
+                .unit("PIECE")
+                .version(version)
+                .build();
+    }
+
+    // a client that stopped reading: send blocks until the connection is torn down
+    private static final class StalledEmitter extends SseEmitter {
+        private final CountDownLatch release;
+
+        private StalledEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> frames) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch received = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> frames) {
+            received.countDown();
+        }
+    }
+}
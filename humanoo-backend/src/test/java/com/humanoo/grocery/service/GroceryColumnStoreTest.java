@@ -0,0 +1,217 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.CategoryStatsResponse;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.repository.GrocerySpecifications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scans are checked against a plain stream over the same rows, sorted with
+ * GrocerySpecifications.comparatorOf. A small leaf size makes every scan fork.
+ */
+class GroceryColumnStoreTest {
+
+    private static final String[] CATEGORIES = { "FRUITS", "DAIRY", "BAKERY", "FROZEN" };
+    private static final int ROWS = 3000;
+
+    private GroceryColumnStore store;
+    private List<GroceryResponse> groceries;
+
+    @BeforeEach
+    void setUp() {
+        store = new GroceryColumnStore(true, 4, 64);
+        groceries = new ArrayList<>();
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 1; i <= ROWS; i++) {
+            groceries.add(grocery(i, CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    BigDecimal.valueOf(50 + random.nextInt(2000), 2), random.nextInt(100),
+                    // plenty of ties, so the id tiebreak is exercised
+                    base.plusMinutes(random.nextInt(500))));
+        }
+        store.rebuild(groceries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void filter_ShouldMatchReferenceForEverySortAndLimit() {
+        for (String sort : List.of("updatedAt", "price", "quantity", "name")) {
+            for (boolean ascending : List.of(true, false)) {
+                GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                        .categories(List.of("DAIRY", "FROZEN", "UNKNOWN"))
+                        .minPrice(new BigDecimal("3.005"))
+                        .maxPrice(new BigDecimal("15.00"))
+                        .stockBelow(60)
+                        .sortBy(sort)
+                        .ascending(ascending)
+                        .build();
+                List<GroceryResponse> expected = reference(criteria, grocery -> true);
+
+                assertEquals(expected, store.filter(criteria, null, null), sort);
+                assertEquals(expected.subList(0, 25), store.filter(criteria, null, 25), sort);
+            }
+        }
+    }
+
+    @Test
+    void filter_ShouldContinueFromCursor() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder().stockBelow(30).build();
+        List<GroceryResponse> all = reference(criteria, grocery -> true);
+
+        List<GroceryResponse> pages = new ArrayList<>();
+        GroceryCursor cursor = GroceryCursor.START;
+        List<GroceryResponse> page;
+        do {
+            page = store.filter(criteria, cursor, 100);
+            pages.addAll(page);
+            if (!page.isEmpty()) {
+                GroceryResponse last = page.get(page.size() - 1);
+                cursor = new GroceryCursor(last.getUpdatedAt(), last.getId());
+            }
+        } while (page.size() == 100);
+
+        assertEquals(all, pages);
+    }
+
+    @Test
+    void filter_ShouldReturnNothing_WhenOnlyUnknownCategoriesGiven() {
+        assertTrue(store.filter(GroceryFilterCriteria.builder().categories(List.of("UNKNOWN")).build(),
+                null, null).isEmpty());
+    }
+
+    @Test
+    void aggregate_ShouldMatchPerCategoryTotals() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .maxPrice(new BigDecimal("10.00"))
+                .build();
+
+        List<CategoryStatsResponse> stats = store.aggregate(criteria);
+
+        assertEquals(List.of("BAKERY", "DAIRY", "FROZEN", "FRUITS"),
+                stats.stream().map(CategoryStatsResponse::getCategory).toList());
+        for (CategoryStatsResponse stat : stats) {
+            List<GroceryResponse> rows = reference(criteria,
+                    grocery -> grocery.getCategory().equals(stat.getCategory()));
+            assertEquals(rows.size(), stat.getItemCount());
+            assertEquals(rows.stream().mapToLong(GroceryResponse::getQuantity).sum(), stat.getTotalQuantity());
+            assertEquals(rows.stream().map(row -> row.getPrice().multiply(BigDecimal.valueOf(row.getQuantity())))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add), stat.getInventoryValue());
+            assertEquals(rows.stream().map(GroceryResponse::getPrice).min(BigDecimal::compareTo).orElseThrow(),
+                    stat.getMinPrice());
+            assertEquals(rows.stream().map(GroceryResponse::getPrice).max(BigDecimal::compareTo).orElseThrow(),
+                    stat.getMaxPrice());
+        }
+    }
+
+    @Test
+    void onGroceryChanged_ShouldApplyUpdatesAndReuseDeletedSlots() {
+        GroceryResponse before = groceries.get(0);
+        GroceryResponse after = grocery(before.getId(), "SNACKS", new BigDecimal("99.99"), 1,
+                LocalDateTime.of(2030, 1, 1, 0, 0));
+        store.onGroceryChanged(GroceryChangedEvent.updated(before, after));
+        store.onGroceryChanged(GroceryChangedEvent.deleted(2L, groceries.get(1)));
+        store.onGroceryChanged(GroceryChangedEvent.created(grocery(ROWS + 1, "SNACKS", new BigDecimal("1.00"), 5,
+                LocalDateTime.of(2030, 1, 2, 0, 0))));
+
+        List<GroceryResponse> snacks = store.filter(GroceryFilterCriteria.builder()
+                .categories(List.of("SNACKS")).build(), null, null);
+        assertEquals(List.of((long) ROWS + 1, 1L), snacks.stream().map(GroceryResponse::getId).toList());
+        assertEquals(ROWS, store.size());
+        assertTrue(store.filter(GroceryFilterCriteria.builder().build(), null, null).stream()
+                .noneMatch(grocery -> grocery.getId() == 2L));
+    }
+
+    @Test
+    void disabledStore_ShouldIgnoreRebuildsAndEvents() {
+        GroceryColumnStore disabled = new GroceryColumnStore(false, 1);
+        disabled.rebuild(groceries);
+        disabled.onGroceryChanged(GroceryChangedEvent.created(groceries.get(0)));
+
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.size());
+    }
+
+    private List<GroceryResponse> reference(GroceryFilterCriteria criteria, Predicate<GroceryResponse> also) {
+        return groceries.stream()
+                .filter(grocery -> criteria.getCategories() == null
+                        || criteria.getCategories().contains(grocery.getCategory()))
+                .filter(grocery -> criteria.getMinPrice() == null
+                        || grocery.getPrice().compareTo(criteria.getMinPrice()) >= 0)
+                .filter(grocery -> criteria.getMaxPrice() == null
+                        || grocery.getPrice().compareTo(criteria.getMaxPrice()) <= 0)
+                .filter(grocery -> criteria.getStockBelow() == null || grocery.getQuantity() < criteria.getStockBelow())
+                .filter(also)
+                .sorted(GrocerySpecifications.comparatorOf(criteria))
+                .toList();
+    }
+
+    @Test
+    void onGroceryChanged_ShouldDropChangesOlderThanTheStoredOne() {
+        LocalDateTime time = LocalDateTime.of(2030, 1, 1, 0, 0);
+        GroceryResponse newer = grocery(1L, "SNACKS", new BigDecimal("1.00"), 1, time);
+        newer.setVersion(2L);
+        GroceryResponse older = grocery(1L, "CANDY", new BigDecimal("1.00"), 1, time);
+        older.setVersion(1L);
+        store.onGroceryChanged(GroceryChangedEvent.updated(groceries.get(0), newer));
+        store.onGroceryChanged(GroceryChangedEvent.updated(groceries.get(0), older));
+        store.onGroceryChanged(GroceryChangedEvent.deleted(2L, groceries.get(1)));
+        GroceryResponse resurrected = grocery(2L, "CANDY", new BigDecimal("1.00"), 1, time);
+        resurrected.setVersion(5L);
+        store.onGroceryChanged(GroceryChangedEvent.updated(groceries.get(1), resurrected));
+
+        assertEquals(List.of(1L), store.filter(GroceryFilterCriteria.builder()
+                .categories(List.of("SNACKS")).build(), null, null).stream().map(GroceryResponse::getId).toList());
+        assertTrue(store.filter(GroceryFilterCriteria.builder()
+                .categories(List.of("CANDY")).build(), null, null).isEmpty());
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesAppliedWhileTheRowsWereRead() {
+        GroceryColumnStore rebuilt = new GroceryColumnStore(true, 4, 64);
+        try {
+            rebuilt.beginRebuild();
+            GroceryResponse moved = grocery(1L, "SNACKS", new BigDecimal("1.00"), 1, LocalDateTime.of(2030, 1, 1, 0, 0));
+            moved.setVersion(1L);
+            rebuilt.onGroceryChanged(GroceryChangedEvent.updated(groceries.get(0), moved));
+            rebuilt.onGroceryChanged(GroceryChangedEvent.deleted(2L, groceries.get(1)));
+
+            rebuilt.rebuild(groceries);
+
+            assertEquals(List.of(1L), rebuilt.filter(GroceryFilterCriteria.builder()
+                    .categories(List.of("SNACKS")).build(), null, null).stream().map(GroceryResponse::getId).toList());
+            assertEquals(ROWS - 1, rebuilt.size());
+        } finally {
+            rebuilt.shutdown();
+        }
+    }
+
+    private static GroceryResponse grocery(long id, String category, BigDecimal price, int quantity,
+            LocalDateTime updatedAt) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name("Item " + (ROWS - id))
+                .category(category)
+                .price(price)
+                .quantity(quantity)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.GroceryHistory;
+import com.humanoo.grocery.repository.GroceryHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GroceryHistoryLogTest {
+
+    private GroceryHistoryRepository historyRepository;
+    private SimpleMeterRegistry registry;
+    private GroceryHistoryLog historyLog;
+
+    @BeforeEach
+    void setUp() {
+        historyRepository = mock(GroceryHistoryRepository.class);
+        registry = new SimpleMeterRegistry();
+        // the scheduled flush never fires during a test; flush() is called directly
+        historyLog = new GroceryHistoryLog(historyRepository, registry, 3, 2, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        historyLog.shutdown();
+    }
+
+    @Test
+    void toRecord_ShouldSkipUpdatesThatKeepPriceAndQuantity() {
+        GroceryResponse before = grocery("2.50", 10);
+        GroceryResponse renamed = grocery("2.5", 10);
+        renamed.setName("Renamed");
+
+        assertNull(GroceryHistoryLog.toRecord(GroceryChangedEvent.updated(before, renamed)));
+
+        GroceryHistory record = GroceryHistoryLog.toRecord(GroceryChangedEvent.updated(before, grocery("2.50", 7)));
+        assertEquals(GroceryChangeType.UPDATED, record.getOperation());
+        assertEquals(7, record.getQuantity());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 10, 0), record.getChangedAt());
+    }
+
+    @Test
+    void enqueue_ShouldDropAndCountWhenQueueIsFull() {
+        for (int quantity = 1; quantity <= 4; quantity++) {
+            historyLog.onGroceryChanged(GroceryChangedEvent.created(grocery("1.00", quantity)));
+        }
+
+        assertEquals(3, historyLog.queueDepth());
+        assertEquals(1.0, registry.counter(GroceryHistoryLog.DROPPED_METRIC).count());
+        assertEquals(3.0, registry.get(GroceryHistoryLog.QUEUE_DEPTH_METRIC).gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteInBatchesAndRecordLatency() {
+        for (int quantity = 1; quantity <= 3; quantity++) {
+            historyLog.onGroceryChanged(GroceryChangedEvent.created(grocery("1.00", quantity)));
+        }
+
+        assertEquals(3, historyLog.flush());
+
+        ArgumentCaptor<List<GroceryHistory>> batches = ArgumentCaptor.forClass(List.class);
+        verify(historyRepository, times(2)).saveAll(batches.capture());
+        assertEquals(List.of(2, 1), batches.getAllValues().stream().map(List::size).toList());
+        assertEquals(0, historyLog.queueDepth());
+        assertEquals(3.0, registry.counter(GroceryHistoryLog.WRITTEN_METRIC).count());
+        assertEquals(2, registry.get(GroceryHistoryLog.FLUSH_METRIC).timer().count());
+    }
+
+    @Test
+    void flush_ShouldCountFailedBatchAsDropped() {
+        when(historyRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        historyLog.onGroceryChanged(GroceryChangedEvent.created(grocery("1.00", 1)));
+
+        assertEquals(0, historyLog.flush());
+        assertEquals(1.0, registry.counter(GroceryHistoryLog.DROPPED_METRIC).count());
+    }
+
+    @Test
+    void shutdown_ShouldDrainQueue() {
+        historyLog.onGroceryChanged(GroceryChangedEvent.deleted(1L, grocery("1.00", 1)));
+
+        historyLog.shutdown();
+
+        verify(historyRepository).saveAll(anyList());
+        assertEquals(0, historyLog.queueDepth());
+    }
+
+    @Test
+    void findHistory_ShouldRejectEmptyRange() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> historyLog.findHistory(1L, at, at, null));
+    }
+
+    private static GroceryResponse grocery(String price, int quantity) {
+        return GroceryResponse.builder()
+                .id(1L)
+                .name("Apples")
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .version(1L)
+                .updatedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryImportJob;
+import com.humanoo.grocery.dto.GroceryImportRowError;
+import com.humanoo.grocery.dto.GroceryImportStatus;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.GroceryRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GroceryImportServiceTest {
+
+    private GroceryRepository groceryRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private GroceryImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        groceryRepository = mock(GroceryRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        GroceryService groceryService = new GroceryService(groceryRepository,
+                new GroceryCache(100, 10, Duration.ofMinutes(1)), new GrocerySearchIndex(), new GroceryPriceIndex(),
+                new GroceryColumnStore(false, 1), new LowStockMonitor(eventPublisher, 10, Map.of(), 100),
+                new GroceryCategoryStats(), new CatalogVersion(), eventPublisher);
+        // chunks of two rows, at most one read ahead of the writer
+        importService = new GroceryImportService(groceryRepository, groceryService, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(PlatformTransactionManager.class),
+                2, 2, 1, 100, 10);
+
+        when(groceryRepository.findExistingLowerCaseNames(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream().filter("bananas"::equals).toList();
+        });
+        AtomicLong ids = new AtomicLong();
+        when(groceryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Grocery> groceries = invocation.getArgument(0);
+            groceries.forEach(grocery -> grocery.setId(ids.incrementAndGet()));
+            return groceries;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCsv_ShouldImportValidRowsAndReportTheRestByLine() throws Exception {
+        GroceryImportJob job = importService.importCsv(csv("""
+                name,price,quantity,category,description
+                Kiwi,0.50,100,FRUITS,"Green, fuzzy"
+                Bananas,1.00,5,FRUITS,
+                Mango,abc,5,FRUITS,
+                "Dragon
+                Fruit",3.00,2,FRUITS,"Pink ""pitaya""\"
+                kiwi,0.70,10,FRUITS,
+                ,1.00,1,FRUITS,
+                """));
+
+        assertEquals(GroceryImportStatus.COMPLETED, job.getStatus());
+        assertEquals(6, job.getRowsRead());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(4, job.getRowsFailed());
+        assertFalse(job.isErrorsTruncated());
+
+        Map<Long, String> errors = job.getErrors().stream()
+                .collect(Collectors.toMap(GroceryImportRowError::getLine, GroceryImportRowError::getError));
+        assertEquals("Grocery with name 'Bananas' already exists", errors.get(3L));
+        assertEquals("price: 'abc' is not a number", errors.get(4L));
+        assertEquals("Grocery with name 'kiwi' appears earlier in the file, on line 2", errors.get(7L));
+        assertEquals("name: Name is required", errors.get(8L));
+
+        ArgumentCaptor<List<Grocery>> saved = ArgumentCaptor.forClass(List.class);
+        verify(groceryRepository, times(2)).saveAll(saved.capture());
+        List<Grocery> groceries = saved.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of("Kiwi", "Dragon\nFruit"), groceries.stream().map(Grocery::getName).toList());
+        assertEquals(List.of("Green, fuzzy", "Pink \"pitaya\""),
+                groceries.stream().map(Grocery::getDescription).toList());
+        verify(eventPublisher, times(2)).publishEvent(any(GroceryChangedEvent.class));
+    }
+
+    @Test
+    void importCsv_ShouldRejectUnknownColumnAndRecordFailedJob() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> importService.importCsv(csv("name,price,quantity,category,colour\n")));
+
+        assertEquals("Unknown CSV column 'colour'", error.getMessage());
+        GroceryImportJob job = importService.getJobs().get(0);
+        assertEquals(GroceryImportStatus.FAILED, job.getStatus());
+        assertEquals(job, importService.getJob(job.getJobId()).orElseThrow());
+        verify(groceryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void importCsv_ShouldRejectMissingRequiredColumnAndUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(csv("name,price,quantity\n")));
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(csv(
+                "name,price,quantity,category\n\"Kiwi,0.50,100,FRUITS\n")));
+        assertThrows(IllegalArgumentException.class, () -> importService.importCsv(csv("")));
+    }
+
+    @Test
+    void submitCsv_ShouldReturnJobIdAndImportInBackground() throws Exception {
+        GroceryImportJob started = importService.submitCsv(csv("name,price,quantity,category\nKiwi,0.50,100,FRUITS\n"));
+
+        assertNotNull(started.getJobId());
+        GroceryImportJob job = importService.getJob(started.getJobId()).orElseThrow();
+        for (long deadline = System.nanoTime() + 5_000_000_000L;
+                job.getStatus() == GroceryImportStatus.RUNNING && System.nanoTime() < deadline; ) {
+            Thread.sleep(10);
+            job = importService.getJob(started.getJobId()).orElseThrow();
+        }
+        assertEquals(GroceryImportStatus.COMPLETED, job.getStatus());
+        assertEquals(1, job.getRowsImported());
+    }
+
+    @Test
+    void submitCsv_ShouldRejectInvalidHeaderBeforeStartingJob() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.submitCsv(csv("name,price,quantity,category,colour\n")));
+
+        assertTrue(importService.getJobs().isEmpty());
+    }
+
+    private static InputStream csv(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
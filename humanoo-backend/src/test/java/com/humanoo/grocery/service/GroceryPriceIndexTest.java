@@ -0,0 +1,105 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroceryPriceIndexTest {
+
+    private GroceryPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GroceryPriceIndex();
+        index.rebuild(List.of(
+                grocery(1L, "FRUITS", "2.99"),
+                grocery(2L, "FRUITS", "4.99"),
+                grocery(3L, "DAIRY", "3.99"),
+                grocery(4L, "DAIRY", "1.99"),
+                grocery(5L, "MEAT", "12.99")));
+    }
+
+    @Test
+    void range_ShouldReturnInclusiveRangeCheapestFirst() {
+        List<GroceryResponse> result = index.range(null, new BigDecimal("2.99"), new BigDecimal("4.99"), false, 10);
+
+        assertEquals(List.of(1L, 3L, 2L), ids(result));
+    }
+
+    @Test
+    void range_ShouldMergeCategoriesAndRespectLimit() {
+        List<GroceryResponse> mostExpensive = index.range(List.of("FRUITS", "DAIRY"), null, null, true, 3);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(mostExpensive));
+        assertEquals(List.of(4L), ids(index.range(List.of("DAIRY"), null, null, false, 1)));
+        assertTrue(index.range(List.of("UNKNOWN"), null, null, false, 10).isEmpty());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldMoveRepricedItems() {
+        index.onGroceryChanged(GroceryChangedEvent.updated(grocery(5L, "MEAT", "12.99"),
+                grocery(5L, "DAIRY", "0.99")));
+        index.onGroceryChanged(GroceryChangedEvent.deleted(4L, grocery(4L, "DAIRY", "1.99")));
+
+        assertEquals(List.of(5L, 3L), ids(index.range(List.of("DAIRY"), null, null, false, 10)));
+        assertTrue(index.range(List.of("MEAT"), null, null, false, 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldDropChangesOlderThanTheIndexedOne() {
+        GroceryResponse repriced = grocery(1L, "FRUITS", "0.49");
+        repriced.setVersion(2L);
+        GroceryResponse stale = grocery(1L, "FRUITS", "9.99");
+        stale.setVersion(1L);
+        index.onGroceryChanged(GroceryChangedEvent.updated(stale, repriced));
+        index.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", "2.99"), stale));
+
+        assertEquals(List.of(1L), ids(index.range(null, null, null, false, 1)));
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesAppliedWhileTheRowsWereRead() {
+        GroceryPriceIndex rebuilt = new GroceryPriceIndex();
+        rebuilt.beginRebuild();
+        GroceryResponse scanned = grocery(1L, "FRUITS", "2.99");
+        scanned.setVersion(1L);
+        GroceryResponse repriced = grocery(1L, "FRUITS", "0.49");
+        repriced.setVersion(2L);
+        rebuilt.onGroceryChanged(GroceryChangedEvent.updated(scanned, repriced));
+        rebuilt.onGroceryChanged(GroceryChangedEvent.deleted(2L, null));
+
+        rebuilt.rebuild(List.of(scanned, grocery(2L, "FRUITS", "4.99")));
+
+        assertEquals(List.of(1L), ids(rebuilt.range(null, null, new BigDecimal("1.00"), false, 10)));
+        assertEquals(1, rebuilt.size());
+    }
+
+    @Test
+    void toCents_ShouldRoundBoundsInward() {
+        assertEquals(300, GroceryPriceIndex.toCents(new BigDecimal("2.991"), RoundingMode.CEILING));
+        assertEquals(299, GroceryPriceIndex.toCents(new BigDecimal("2.999"), RoundingMode.FLOOR));
+        assertEquals(Long.MAX_VALUE, GroceryPriceIndex.toCents(new BigDecimal("1e30"), RoundingMode.FLOOR));
+    }
+
+    private List<Long> ids(List<GroceryResponse> groceries) {
+        return groceries.stream().map(GroceryResponse::getId).toList();
+    }
+
+    private GroceryResponse grocery(Long id, String category, String price) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .category(category)
+                .price(new BigDecimal(price))
+                .quantity(10)
+                .build();
+    }
+}
@@ -0,0 +1,132 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrocerySearchIndexTest {
+
+    private GrocerySearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new GrocerySearchIndex();
+        index.rebuild(List.of(
+                grocery(1L, "Apples", "Red delicious apples"),
+                grocery(2L, "Pineapple", "Sweet tropical fruit"),
+                grocery(3L, "Apple Juice", "Pressed from fresh apples"),
+                grocery(4L, "Bread", "Whole wheat bread")));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesBeforeDescriptionMatches() {
+        List<GroceryResponse> result = index.search("APPLE", 10);
+
+        assertEquals(List.of(1L, 3L, 2L), result.stream().map(GroceryResponse::getId).toList());
+    }
+
+    @Test
+    void search_ShouldAnswerShortPrefixesAndRespectLimit() {
+        assertEquals(1, index.search("ap", 1).size());
+        assertEquals(List.of(4L), index.search("br", 10).stream().map(GroceryResponse::getId).toList());
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldMatchDescriptionSubstrings() {
+        List<GroceryResponse> result = index.search("tropical", 10);
+
+        assertEquals(List.of(2L), result.stream().map(GroceryResponse::getId).toList());
+    }
+
+    @Test
+    void search_ShouldPageThroughTheSameRanking() {
+        List<GroceryResponse> firstPage = index.search("ap", null, 2);
+        List<GroceryResponse> secondPage = index.search("ap", index.cursorAfter("ap", firstPage.get(1)), 2);
+
+        assertEquals(List.of(1L, 3L), firstPage.stream().map(GroceryResponse::getId).toList());
+        assertEquals(List.of(2L), secondPage.stream().map(GroceryResponse::getId).toList());
+        assertEquals(index.search("ap", 10), Stream.concat(firstPage.stream(), secondPage.stream()).toList());
+    }
+
+    @Test
+    void rank_ShouldOrderRowsFromElsewhereLikeSearch() {
+        List<GroceryResponse> rows = List.of(
+                grocery(2L, "Pineapple", "Sweet tropical fruit"),
+                grocery(4L, "Bread", "Whole wheat bread"),
+                grocery(3L, "Apple Juice", "Pressed from fresh apples"),
+                grocery(1L, "Apples", "Red delicious apples"));
+
+        assertEquals(index.search("apple", 10), index.rank(rows, "apple", null, 10));
+        assertEquals(List.of(3L), index.rank(rows, "apple", index.cursorAfter("apple", rows.get(3)), 1).stream()
+                .map(GroceryResponse::getId).toList());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldKeepIndexCurrent() {
+        GroceryResponse before = grocery(4L, "Bread", "Whole wheat bread");
+        index.onGroceryChanged(GroceryChangedEvent.updated(before, grocery(4L, "Sourdough", "Whole wheat bread")));
+        index.onGroceryChanged(GroceryChangedEvent.deleted(1L, null));
+
+        assertTrue(index.search("bread", 10).stream().allMatch(g -> g.getName().equals("Sourdough")));
+        assertEquals(List.of(4L), index.search("sour", 10).stream().map(GroceryResponse::getId).toList());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldDropChangesOlderThanTheIndexedOne() {
+        GroceryResponse rye = versioned(grocery(4L, "Rye", "Whole wheat bread"), 1L);
+        GroceryResponse sourdough = versioned(grocery(4L, "Sourdough", "Whole wheat bread"), 2L);
+        index.onGroceryChanged(GroceryChangedEvent.updated(rye, sourdough));
+        // the listener of the earlier commit runs last
+        index.onGroceryChanged(GroceryChangedEvent.updated(grocery(4L, "Bread", "Whole wheat bread"), rye));
+        index.onGroceryChanged(GroceryChangedEvent.deleted(1L, null));
+        index.onGroceryChanged(GroceryChangedEvent.updated(null,
+                versioned(grocery(1L, "Apples", "Red delicious apples"), 3L)));
+
+        assertEquals(List.of(4L), index.search("sour", 10).stream().map(GroceryResponse::getId).toList());
+        assertTrue(index.search("rye", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesAppliedWhileTheRowsWereRead() {
+        GrocerySearchIndex rebuilt = new GrocerySearchIndex();
+        rebuilt.beginRebuild();
+        List<GroceryResponse> scanned = List.of(
+                versioned(grocery(1L, "Apples", "Red delicious apples"), 1L),
+                versioned(grocery(4L, "Bread", "Whole wheat bread"), 1L));
+        rebuilt.onGroceryChanged(GroceryChangedEvent.updated(scanned.get(1),
+                versioned(grocery(4L, "Sourdough", "Whole wheat bread"), 2L)));
+        rebuilt.onGroceryChanged(GroceryChangedEvent.deleted(1L, scanned.get(0)));
+        rebuilt.onGroceryChanged(GroceryChangedEvent.created(versioned(grocery(5L, "Butter", ""), 0L)));
+
+        rebuilt.rebuild(scanned);
+
+        assertEquals(List.of(4L), rebuilt.search("sour", 10).stream().map(GroceryResponse::getId).toList());
+        assertTrue(rebuilt.search("apples", 10).isEmpty());
+        assertEquals(List.of(5L), rebuilt.search("butter", 10).stream().map(GroceryResponse::getId).toList());
+        assertEquals(2, rebuilt.size());
+    }
+
+    private static GroceryResponse versioned(GroceryResponse grocery, Long version) {
+        grocery.setVersion(version);
+        return grocery;
+    }
+
+    private GroceryResponse grocery(Long id, String name, String description) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .updatedAt(LocalDateTime.of(2024, 5, 1, 10, 0).minusMinutes(id))
+                .build();
+    }
+}
@@ -1,8 +1,13 @@
 package com.humanoo.grocery.service;
 
 import com.humanoo.grocery.dto.GroceryCreateRequest;
+import com.humanoo.grocery.dto.GroceryCursor;
+import com.humanoo.grocery.dto.GroceryFilterCriteria;
+import com.humanoo.grocery.dto.GroceryPage;
 import com.humanoo.grocery.dto.GroceryResponse;
 import com.humanoo.grocery.dto.GroceryUpdateRequest;
+import com.humanoo.grocery.event.GroceryChangeType;
+import com.humanoo.grocery.event.GroceryChangedEvent;
 import com.humanoo.grocery.model.Grocery;
 import com.humanoo.grocery.repository.GroceryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +15,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +38,30 @@ class GroceryServiceTest {
     @Mock
     private GroceryRepository groceryRepository;
 
+    @Spy
+    private GroceryCache groceryCache = new GroceryCache(100, 10, Duration.ofMinutes(1));
+
+    @Mock
+    private GrocerySearchIndex grocerySearchIndex;
+
+    @Mock
+    private GroceryPriceIndex groceryPriceIndex;
+
+    @Mock
+    private GroceryColumnStore groceryColumnStore;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private GroceryCategoryStats groceryCategoryStats;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GroceryService groceryService;
 
@@ -42,18 +77,19 @@ class GroceryServiceTest {
         testGrocery.setQuantity(10);
         testGrocery.setCategory("FRUITS");
         testGrocery.setUnit("KG");
+        testGrocery.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 10, 0));
     }
 
     @Test
     void getAllGroceries_ShouldReturnAllGroceries() {
-        List<Grocery> groceries = List.of(testGrocery);
-        when(groceryRepository.findAllByOrderByUpdatedAtDesc()).thenReturn(groceries);
+        List<GroceryResponse> groceries = List.of(groceryService.mapToResponse(testGrocery));
+        when(groceryRepository.findAllResponses()).thenReturn(groceries);
 
         List<GroceryResponse> result = groceryService.getAllGroceries();
 
         assertEquals(1, result.size());
         assertEquals(testGrocery.getName(), result.get(0).getName());
-        verify(groceryRepository).findAllByOrderByUpdatedAtDesc();
+        verify(groceryRepository).findAllResponses();
     }
 
     @Test
@@ -117,19 +153,258 @@ class GroceryServiceTest {
 
     @Test
     void deleteGrocery_ShouldDeleteSuccessfully_WhenExists() {
-        when(groceryRepository.existsById(1L)).thenReturn(true);
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(testGrocery));
 
         assertDoesNotThrow(() -> groceryService.deleteGrocery(1L));
-        verify(groceryRepository).existsById(1L);
-        verify(groceryRepository).deleteById(1L);
+        verify(groceryRepository).delete(testGrocery);
+        verify(groceryRepository, never()).existsById(anyLong());
     }
 
     @Test
     void deleteGrocery_ShouldThrowException_WhenNotExists() {
-        when(groceryRepository.existsById(1L)).thenReturn(false);
+        when(groceryRepository.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> groceryService.deleteGrocery(1L));
-        verify(groceryRepository).existsById(1L);
-        verify(groceryRepository, never()).deleteById(anyLong());
+        verify(groceryRepository, never()).delete(any(Grocery.class));
+    }
+
+    @Test
+    void getAllGroceriesPage_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        Grocery older = new Grocery();
+        older.setId(2L);
+        older.setName("Old Apple");
+        older.setUpdatedAt(LocalDateTime.of(2024, 4, 1, 10, 0));
+        List<GroceryResponse> rows = List.of(groceryService.mapToResponse(testGrocery),
+                groceryService.mapToResponse(older));
+        when(groceryRepository.findPageAfter(any(LocalDateTime.class), anyLong(), any())).thenReturn(rows);
+
+        GroceryPage page = groceryService.getAllGroceries(null, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertEquals(testGrocery.getName(), page.getContent().get(0).getName());
+        GroceryCursor next = GroceryCursor.decode(page.getNextCursor());
+        assertEquals(testGrocery.getUpdatedAt(), next.getUpdatedAt());
+        assertEquals(testGrocery.getId(), next.getId());
+    }
+
+    @Test
+    void getAllGroceriesPage_ShouldNotReturnCursor_OnLastPage() {
+        when(groceryRepository.findPageAfter(any(LocalDateTime.class), anyLong(), any()))
+                .thenReturn(List.of(groceryService.mapToResponse(testGrocery)));
+
+        GroceryPage page = groceryService.getAllGroceries(null, 10);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllGroceriesPage_ShouldRejectInvalidLimitAndCursor() {
+        assertThrows(IllegalArgumentException.class, () -> groceryService.getAllGroceries(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> groceryService.getAllGroceries("not-a-cursor", 10));
+    }
+
+    @Test
+    void getGroceryById_ShouldServeSecondReadFromCache() {
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(testGrocery));
+
+        groceryService.getGroceryById(1L);
+        Optional<GroceryResponse> result = groceryService.getGroceryById(1L);
+
+        assertTrue(result.isPresent());
+        verify(groceryRepository, times(1)).findById(1L);
+        assertEquals(1, groceryService.getCacheStats().get(0).getHitCount());
+    }
+
+    @Test
+    void groceryCache_ShouldKeepNewerItem_WhenChangesArriveOutOfOrder() {
+        GroceryResponse v1 = GroceryResponse.builder().id(1L).name("Apple").category("FRUITS").version(1L).build();
+        GroceryResponse v2 = GroceryResponse.builder().id(1L).name("Green Apple").category("FRUITS").version(2L)
+                .build();
+
+        groceryCache.onGroceryChanged(GroceryChangedEvent.updated(v1, v2));
+        groceryCache.onGroceryChanged(GroceryChangedEvent.updated(v1, v1));
+
+        assertEquals(Optional.of(v2), groceryCache.getItem(1L, id -> Optional.empty()));
+    }
+
+    @Test
+    void updateGrocery_ShouldPublishChangeWithPreviousState() {
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(testGrocery));
+        when(groceryRepository.save(any(Grocery.class))).thenReturn(testGrocery);
+
+        GroceryUpdateRequest request = new GroceryUpdateRequest();
+        request.setCategory("VEGETABLES");
+        groceryService.updateGrocery(1L, request);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof GroceryChangedEvent changed
+                && changed.getType() == GroceryChangeType.UPDATED
+                && "FRUITS".equals(changed.getBefore().getCategory())
+                && "VEGETABLES".equals(changed.getAfter().getCategory())));
+    }
+
+    @Test
+    void searchGroceriesByName_ShouldUseIndex_WhenReady() {
+        GroceryResponse apple = GroceryResponse.builder().id(1L).name("Test Apple").build();
+        when(grocerySearchIndex.isReady()).thenReturn(true);
+        when(grocerySearchIndex.search("app", null, 5)).thenReturn(List.of(apple));
+
+        List<GroceryResponse> result = groceryService.searchGroceriesByName("app", 5);
+
+        assertEquals(List.of(apple), result);
+        verify(groceryRepository, never()).findResponsesByName(anyString(), any());
+    }
+
+    @Test
+    void updateGrocery_ShouldRejectStaleExpectedVersion() {
+        testGrocery.setVersion(3L);
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(testGrocery));
+
+        GroceryUpdateRequest request = new GroceryUpdateRequest();
+        request.setPrice(new BigDecimal("4.99"));
+
+        assertThrows(PreconditionFailedException.class, () -> groceryService.updateGrocery(1L, request, 2L));
+        verify(groceryRepository, never()).save(any(Grocery.class));
+    }
+
+    @Test
+    void filterGroceries_ShouldFetchOneExtraRowForKeysetPage() {
+        Grocery older = new Grocery();
+        older.setId(2L);
+        older.setUpdatedAt(LocalDateTime.of(2024, 4, 1, 10, 0));
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(List.of("FRUITS"))
+                .build();
+        when(groceryRepository.findMatching(eq(criteria), any(GroceryCursor.class), eq(2)))
+                .thenReturn(List.of(groceryService.mapToResponse(testGrocery),
+                        groceryService.mapToResponse(older)));
+
+        GroceryPage page = groceryService.filterGroceries(criteria, null, 1);
+
+        assertEquals(1, page.getContent().size());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void filterGroceries_ShouldRejectCursorForCustomSort() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .sortBy("price")
+                .ascending(true)
+                .build();
+        String cursor = new GroceryCursor(LocalDateTime.of(2024, 5, 1, 10, 0), 1L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> groceryService.filterGroceries(criteria, cursor, 10));
+        verifyNoInteractions(groceryRepository);
+    }
+
+    @Test
+    void filterGroceries_ShouldRejectInvertedPriceRange() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .minPrice(new BigDecimal("5.00"))
+                .maxPrice(new BigDecimal("1.00"))
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> groceryService.filterGroceries(criteria));
+    }
+
+    @Test
+    void filterGroceries_ShouldUsePriceIndex_WhenSortedByPrice() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .minPrice(new BigDecimal("2.00"))
+                .maxPrice(new BigDecimal("5.00"))
+                .sortBy("price")
+                .ascending(true)
+                .build();
+        GroceryResponse cheapest = GroceryResponse.builder().id(2L).price(new BigDecimal("3.00")).build();
+        when(groceryPriceIndex.isReady()).thenReturn(true);
+        when(groceryPriceIndex.range(null, new BigDecimal("2.00"), new BigDecimal("5.00"), false, Integer.MAX_VALUE))
+                .thenReturn(List.of(cheapest));
+
+        assertEquals(List.of(cheapest), groceryService.filterGroceries(criteria));
+        verify(groceryRepository, never()).findMatching(any(), any(), any());
+    }
+
+    @Test
+    void getGroceriesByPriceRange_ShouldQueryDatabase_WhenNotSortedByPrice() {
+        GroceryResponse newest = GroceryResponse.builder().id(3L).price(new BigDecimal("4.00")).build();
+        when(groceryRepository.findMatching(any(), isNull(), isNull())).thenReturn(List.of(newest));
+
+        List<GroceryResponse> result = groceryService.getGroceriesByPriceRange(new BigDecimal("2.00"),
+                new BigDecimal("5.00"));
+
+        // newest first would mean copying and sorting every key in range
+        assertEquals(List.of(newest), result);
+        verify(groceryPriceIndex, never()).range(any(), any(), any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    void filterGroceries_ShouldScanColumnStore_WhenReadyAndNoNameGiven() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .categories(List.of("FRUITS"))
+                .stockBelow(5)
+                .build();
+        GroceryResponse low = groceryService.mapToResponse(testGrocery);
+        when(groceryColumnStore.isReady()).thenReturn(true);
+        when(groceryColumnStore.filter(criteria, null, null)).thenReturn(List.of(low));
+
+        assertEquals(List.of(low), groceryService.filterGroceries(criteria));
+        verify(groceryRepository, never()).findMatching(any(), any(), any());
+
+        // names are not in the columns
+        criteria.setName("app");
+        groceryService.filterGroceries(criteria);
+        verify(groceryRepository).findMatching(criteria, null, null);
+    }
+
+    @Test
+    void getCategoryStats_ShouldAggregateInDatabase_WhenFilteredWithoutColumnStore() {
+        GroceryFilterCriteria criteria = GroceryFilterCriteria.builder()
+                .minPrice(new BigDecimal("1.00"))
+                .build();
+        when(groceryRepository.aggregateMatching(criteria)).thenReturn(List.of());
+
+        assertEquals(List.of(), groceryService.getCategoryStats(criteria));
+        verify(groceryColumnStore, never()).aggregate(any());
+        verify(groceryCategoryStats, never()).getStats();
+
+        groceryService.getCategoryStats(GroceryFilterCriteria.builder().build());
+        verify(groceryCategoryStats).getStats();
+    }
+
+    @Test
+    void getLowStockGroceries_ShouldUseMonitor_WhenNoThresholdGiven() {
+        GroceryResponse low = groceryService.mapToResponse(testGrocery);
+        when(lowStockMonitor.isReady()).thenReturn(true);
+        when(lowStockMonitor.getLowStock()).thenReturn(List.of(low));
+
+        assertEquals(List.of(low), groceryService.getLowStockGroceries(null));
+        verifyNoInteractions(groceryRepository);
+    }
+
+    @Test
+    void getLowStockGroceries_ShouldPageMonitorSetByCursor() {
+        GroceryResponse newer = GroceryResponse.builder().id(3L).updatedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .build();
+        GroceryResponse older = GroceryResponse.builder().id(2L).updatedAt(LocalDateTime.of(2024, 4, 1, 10, 0))
+                .build();
+        when(lowStockMonitor.isReady()).thenReturn(true);
+        when(lowStockMonitor.getLowStock()).thenReturn(List.of(newer, older));
+
+        GroceryPage first = groceryService.getLowStockGroceries(null, null, 1);
+        GroceryPage second = groceryService.getLowStockGroceries(null, first.getNextCursor(), 1);
+
+        assertEquals(List.of(newer), first.getContent());
+        assertEquals(List.of(older), second.getContent());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getLowStockGroceries_ShouldQueryDatabase_WhenThresholdGiven() {
+        when(groceryRepository.findLowStockResponses(5)).thenReturn(List.of());
+
+        groceryService.getLowStockGroceries(5);
+
+        verify(groceryRepository).findLowStockResponses(5);
+        verifyNoInteractions(lowStockMonitor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.StockReservationItem;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.Grocery;
+import com.humanoo.grocery.repository.ChangeSequenceWatermark;
+import com.humanoo.grocery.repository.GroceryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroceryStockServiceTest {
+
+    @Mock
+    private GroceryRepository groceryRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GroceryStockService groceryStockService;
+
+    private Grocery bananas;
+
+    @BeforeEach
+    void setUp() {
+        GroceryService groceryService = new GroceryService(groceryRepository,
+                new GroceryCache(100, 10, Duration.ofMinutes(1)), new GrocerySearchIndex(), new GroceryPriceIndex(),
+                new GroceryColumnStore(false, 1), new LowStockMonitor(eventPublisher, 10, Map.of(), 100),
+                new GroceryCategoryStats(), new CatalogVersion(), eventPublisher);
+        groceryStockService = new GroceryStockService(groceryRepository, groceryService,
+                new ChangeSequenceWatermark(), eventPublisher);
+
+        bananas = new Grocery();
+        bananas.setId(1L);
+        bananas.setName("Bananas");
+        bananas.setPrice(new BigDecimal("2.99"));
+        bananas.setQuantity(47);
+        bananas.setCategory("FRUITS");
+    }
+
+    @Test
+    void adjustStock_ShouldApplyConditionalUpdateAndPublishChange() {
+        when(groceryRepository.adjustQuantity(eq(1L), eq(-3), any(LocalDateTime.class))).thenReturn(1);
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(bananas));
+
+        GroceryResponse result = groceryStockService.adjustStock(1L, -3);
+
+        assertEquals(47, result.getQuantity());
+        verify(groceryRepository, never()).save(any(Grocery.class));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof GroceryChangedEvent changed
+                && changed.getBefore().getQuantity() == 50 && changed.getAfter().getQuantity() == 47
+                && changed.getBefore().getVersion() == null && changed.getBefore().getUpdatedAt() == null));
+    }
+
+    @Test
+    void adjustStock_ShouldThrowStockLimitExceeded_WhenIncreaseDoesNotMatch() {
+        when(groceryRepository.adjustQuantity(eq(1L), eq(Integer.MAX_VALUE), any(LocalDateTime.class))).thenReturn(0);
+        when(groceryRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(StockLimitExceededException.class, () -> groceryStockService.adjustStock(1L, Integer.MAX_VALUE));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void adjustStock_ShouldThrowInsufficientStock_WhenUpdateDoesNotMatch() {
+        when(groceryRepository.adjustQuantity(eq(1L), eq(-100), any(LocalDateTime.class))).thenReturn(0);
+        when(groceryRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class, () -> groceryStockService.adjustStock(1L, -100));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void adjustStock_ShouldThrowNotFound_WhenGroceryMissing() {
+        when(groceryRepository.adjustQuantity(eq(9L), eq(-1), any(LocalDateTime.class))).thenReturn(0);
+        when(groceryRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> groceryStockService.adjustStock(9L, -1));
+    }
+
+    @Test
+    void reserveStock_ShouldLockInIdOrderAndSumRepeatedItems() {
+        Grocery apples = new Grocery();
+        apples.setId(2L);
+        apples.setName("Apples");
+        apples.setPrice(new BigDecimal("3.49"));
+        apples.setQuantity(28);
+        apples.setCategory("FRUITS");
+        when(groceryRepository.adjustQuantity(anyLong(), anyInt(), any(LocalDateTime.class))).thenReturn(1);
+        when(groceryRepository.findById(1L)).thenReturn(Optional.of(bananas));
+        when(groceryRepository.findById(2L)).thenReturn(Optional.of(apples));
+
+        List<GroceryResponse> result = groceryStockService.reserveStock(List.of(
+                new StockReservationItem(2L, -1), new StockReservationItem(1L, -2), new StockReservationItem(2L, -1)));
+
+        assertEquals(2, result.size());
+        InOrder inOrder = inOrder(groceryRepository);
+        inOrder.verify(groceryRepository).adjustQuantity(eq(1L), eq(-2), any(LocalDateTime.class));
+        inOrder.verify(groceryRepository).adjustQuantity(eq(2L), eq(-2), any(LocalDateTime.class));
+    }
+
+    @Test
+    void reserveStock_ShouldRejectSumOutsideIntRangeWithoutUpdating() {
+        when(groceryRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(StockLimitExceededException.class, () -> groceryStockService.reserveStock(List.of(
+                new StockReservationItem(1L, Integer.MAX_VALUE), new StockReservationItem(1L, 1))));
+        verify(groceryRepository, never()).adjustQuantity(anyLong(), anyInt(), any(LocalDateTime.class));
+    }
+}
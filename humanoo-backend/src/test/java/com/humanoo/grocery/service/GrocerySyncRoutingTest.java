@@ -0,0 +1,29 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GrocerySyncResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sync with read/write routing on. The "replica" is an empty database standing in
+ * for one that has not caught up, so any sync read routed to it fails.
+ */
+@SpringBootTest(properties = {
+        "grocery.datasource.replicas.urls=jdbc:h2:mem:sync_lagging_replica;DB_CLOSE_DELAY=-1",
+        "grocery.seed.sample-data=true" })
+class GrocerySyncRoutingTest {
+
+    @Autowired
+    private GrocerySyncService grocerySyncService;
+
+    @Test
+    void sync_ShouldReadFromPrimary_WhenReplicaRoutingIsEnabled() {
+        GrocerySyncResponse response = grocerySyncService.sync(null, 100);
+
+        assertFalse(response.getUpserts().isEmpty());
+        assertNotNull(response.getToken());
+    }
+}
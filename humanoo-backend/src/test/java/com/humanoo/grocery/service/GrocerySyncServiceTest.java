@@ -0,0 +1,190 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.GrocerySyncResponse;
+import com.humanoo.grocery.dto.GrocerySyncToken;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.model.GroceryTombstone;
+import com.humanoo.grocery.repository.ChangeSequenceWatermark;
+import com.humanoo.grocery.repository.GroceryRepository;
+import com.humanoo.grocery.repository.GroceryTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class GrocerySyncServiceTest {
+
+    private GroceryRepository groceryRepository;
+    private GroceryTombstoneRepository tombstoneRepository;
+    private ChangeSequenceWatermark sequenceWatermark;
+    private GrocerySyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        groceryRepository = mock(GroceryRepository.class);
+        tombstoneRepository = mock(GroceryTombstoneRepository.class);
+        sequenceWatermark = new ChangeSequenceWatermark();
+        // compaction is called directly; the scheduled run never fires during a test
+        syncService = new GrocerySyncService(groceryRepository, tombstoneRepository, sequenceWatermark,
+                Duration.ofDays(30), Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        syncService.shutdown();
+    }
+
+    @Test
+    void sync_ShouldMergeUpsertsAndDeletesInChangeOrder() {
+        when(groceryRepository.findChangedSince(10, PageRequest.of(0, 4)))
+                .thenReturn(List.of(row(11, 1L), row(14, 2L)));
+        when(tombstoneRepository.findChangedSince(10, PageRequest.of(0, 4)))
+                .thenReturn(List.of(tombstone(12, 7L)));
+
+        GrocerySyncResponse response = syncService.sync(token(10, Instant.now()), 3);
+
+        assertEquals(List.of(1L, 2L), response.getUpserts().stream().map(GroceryResponse::getId).toList());
+        assertEquals(List.of(7L), response.getDeleted());
+        assertFalse(response.isHasMore());
+        assertFalse(response.isReset());
+        assertEquals(14, GrocerySyncToken.decode(response.getToken()).getSequence());
+    }
+
+    @Test
+    void sync_ShouldStopAtLimitAndKeepIssueTimeWhileMoreRemain() {
+        Instant issuedAt = Instant.now().minus(Duration.ofDays(1));
+        when(groceryRepository.findChangedSince(10, PageRequest.of(0, 3)))
+                .thenReturn(List.of(row(11, 1L), row(13, 2L), row(15, 3L)));
+        when(tombstoneRepository.findChangedSince(10, PageRequest.of(0, 3)))
+                .thenReturn(List.of(tombstone(12, 7L)));
+
+        GrocerySyncResponse response = syncService.sync(token(10, issuedAt), 2);
+
+        assertEquals(1, response.getUpserts().size());
+        assertEquals(List.of(7L), response.getDeleted());
+        assertTrue(response.isHasMore());
+        GrocerySyncToken next = GrocerySyncToken.decode(response.getToken());
+        assertEquals(12, next.getSequence());
+        assertEquals(issuedAt, next.getIssuedAt());
+    }
+
+    @Test
+    void sync_ShouldReturnFullCatalogWithoutTombstones_WhenNoToken() {
+        when(groceryRepository.findChangedSince(0, PageRequest.of(0, GrocerySyncService.DEFAULT_LIMIT + 1)))
+                .thenReturn(List.<Object[]>of(row(3, 1L)));
+
+        GrocerySyncResponse response = syncService.sync(null, null);
+
+        assertEquals(1, response.getUpserts().size());
+        assertTrue(response.getDeleted().isEmpty());
+        assertFalse(response.isReset());
+        verify(tombstoneRepository, never()).findChangedSince(anyLong(), any());
+    }
+
+    @Test
+    void sync_ShouldResetClient_WhenTokenOutlivesTombstoneRetention() {
+        when(groceryRepository.findChangedSince(eq(0L), any())).thenReturn(List.<Object[]>of(row(3, 1L)));
+
+        GrocerySyncResponse response = syncService.sync(token(10, Instant.now().minus(Duration.ofDays(31))), 100);
+
+        assertTrue(response.isReset());
+        assertEquals(1, response.getUpserts().size());
+        verify(tombstoneRepository, never()).findChangedSince(anyLong(), any());
+    }
+
+    @Test
+    void sync_ShouldKeepPosition_WhenNothingChanged() {
+        when(groceryRepository.findChangedSince(eq(10L), any())).thenReturn(List.of());
+        when(tombstoneRepository.findChangedSince(eq(10L), any())).thenReturn(List.of());
+
+        GrocerySyncResponse response = syncService.sync(token(10, Instant.now()), null);
+
+        assertEquals(10, GrocerySyncToken.decode(response.getToken()).getSequence());
+    }
+
+    @Test
+    void sync_ShouldHoldTokenBelowWritesStillInFlight() {
+        // a sync has seen up to 14, then a write transaction starts and may take 15 or later
+        when(groceryRepository.findChangedSince(eq(10L), any())).thenReturn(List.of(row(11, 1L), row(14, 2L)));
+        when(tombstoneRepository.findChangedSince(eq(10L), any())).thenReturn(List.of());
+        syncService.sync(token(10, Instant.now()), null);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sequenceWatermark.enter();
+            // ...and another transaction commits 16 first
+            when(groceryRepository.findChangedSince(eq(14L), any())).thenReturn(List.of(row(16, 3L), row(17, 4L)));
+            when(tombstoneRepository.findChangedSince(eq(14L), any())).thenReturn(List.of());
+
+            GrocerySyncResponse held = syncService.sync(token(14, Instant.now()), 1);
+
+            assertEquals(List.of(3L), held.getUpserts().stream().map(GroceryResponse::getId).toList());
+            assertEquals(14, GrocerySyncToken.decode(held.getToken()).getSequence());
+            assertFalse(held.isHasMore());
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        GrocerySyncResponse released = syncService.sync(token(14, Instant.now()), 1);
+        assertEquals(16, GrocerySyncToken.decode(released.getToken()).getSequence());
+        assertTrue(released.isHasMore());
+    }
+
+    @Test
+    void sync_ShouldRejectInvalidTokenAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync("not a token", null));
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> syncService.sync(null, GrocerySyncService.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void onGroceryChanged_ShouldRecordTombstoneForDeletesOnly() {
+        GroceryResponse grocery = GroceryResponse.builder().id(5L).name("Apples").build();
+
+        syncService.onGroceryChanged(GroceryChangedEvent.created(grocery));
+        syncService.onGroceryChanged(GroceryChangedEvent.updated(grocery, grocery));
+        syncService.onGroceryChanged(GroceryChangedEvent.deleted(5L, grocery));
+
+        verify(tombstoneRepository).record(eq(5L), any(LocalDateTime.class));
+        verifyNoMoreInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void compact_ShouldPurgeTombstonesOlderThanRetention() {
+        when(tombstoneRepository.purgeDeletedBefore(any())).thenReturn(3);
+        LocalDateTime start = LocalDateTime.now();
+
+        assertEquals(3, syncService.compact());
+
+        verify(tombstoneRepository).purgeDeletedBefore(argThat(cutoff ->
+                !cutoff.isBefore(start.minusDays(30)) && !cutoff.isAfter(LocalDateTime.now().minusDays(30))));
+    }
+
+    private static String token(long sequence, Instant issuedAt) {
+        return new GrocerySyncToken(sequence, issuedAt).encode();
+    }
+
+    private static Object[] row(long sequence, Long id) {
+        return new Object[] { sequence, GroceryResponse.builder().id(id).build() };
+    }
+
+    private static GroceryTombstone tombstone(long sequence, Long groceryId) {
+        return GroceryTombstone.builder().groceryId(groceryId).changeSequence(sequence).build();
+    }
+}
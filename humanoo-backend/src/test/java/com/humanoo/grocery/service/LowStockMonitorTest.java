@@ -0,0 +1,130 @@
+package com.humanoo.grocery.service;
+
+import com.humanoo.grocery.dto.GroceryResponse;
+import com.humanoo.grocery.dto.LowStockAlert;
+import com.humanoo.grocery.event.GroceryChangedEvent;
+import com.humanoo.grocery.event.LowStockAlertType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LowStockMonitorTest {
+
+    private ApplicationEventPublisher eventPublisher;
+    private LowStockMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        monitor = new LowStockMonitor(eventPublisher, 10, Map.of("MEAT", 3), 2);
+        monitor.rebuild(List.of(
+                grocery(1L, "FRUITS", 50, null),
+                grocery(2L, "FRUITS", 4, null),
+                grocery(3L, "MEAT", 5, null),
+                grocery(4L, "DAIRY", 15, 20)));
+    }
+
+    @Test
+    void rebuild_ShouldApplyItemThenCategoryThenDefaultThreshold() {
+        assertEquals(List.of(4L, 2L), ids(monitor.getLowStock()));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onGroceryChanged_ShouldRaiseAlertOnlyWhenThresholdIsCrossed() {
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", 50, null),
+                grocery(1L, "FRUITS", 9, null)));
+        // already low: no second alert
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", 9, null),
+                grocery(1L, "FRUITS", 8, null)));
+
+        List<LowStockAlert> alerts = monitor.alertsAfter(0, 10);
+        assertEquals(1, alerts.size());
+        assertEquals(LowStockAlertType.RAISED, alerts.get(0).getType());
+        assertEquals(1L, alerts.get(0).getGroceryId());
+        assertEquals(10, alerts.get(0).getThreshold());
+        assertEquals(3, monitor.size());
+        verify(eventPublisher).publishEvent(alerts.get(0));
+    }
+
+    @Test
+    void onGroceryChanged_ShouldClearAlertOnRestockAndDelete() {
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(2L, "FRUITS", 4, null),
+                grocery(2L, "FRUITS", 10, null)));
+        monitor.onGroceryChanged(GroceryChangedEvent.deleted(4L, null));
+
+        List<LowStockAlert> alerts = monitor.alertsAfter(0, 10);
+        assertEquals(List.of(LowStockAlertType.CLEARED, LowStockAlertType.CLEARED),
+                alerts.stream().map(LowStockAlert::getType).toList());
+        assertNull(alerts.get(1).getQuantity());
+        assertTrue(monitor.getLowStock().isEmpty());
+    }
+
+    @Test
+    void alertsAfter_ShouldSkipEvictedAlerts() {
+        for (int quantity : new int[] {9, 11, 8}) {
+            monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", 50, null),
+                    grocery(1L, "FRUITS", quantity, null)));
+        }
+
+        // history holds two alerts: #1 is gone
+        assertEquals(List.of(2L, 3L), monitor.alertsAfter(0, 10).stream().map(LowStockAlert::getSequence).toList());
+        assertEquals(List.of(3L), monitor.alertsAfter(2, 10).stream().map(LowStockAlert::getSequence).toList());
+    }
+
+    @Test
+    void onGroceryChanged_ShouldNotAlertBeforeRebuild() {
+        LowStockMonitor cold = new LowStockMonitor(eventPublisher, 10, Map.of(), 10);
+
+        cold.onGroceryChanged(GroceryChangedEvent.created(grocery(9L, "FRUITS", 1, null)));
+
+        assertEquals(1, cold.size());
+        assertTrue(cold.alertsAfter(0, 10).isEmpty());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void onGroceryChanged_ShouldDropChangesOlderThanOneAlreadyApplied() {
+        // item 1 drops below its threshold at version 2, item 4 is restocked at version 2;
+        // then the listeners of both version 1 commits run late
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", 50, null),
+                versioned(grocery(1L, "FRUITS", 4, null), 2L)));
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(4L, "DAIRY", 15, 20),
+                versioned(grocery(4L, "DAIRY", 30, 20), 2L)));
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(1L, "FRUITS", 50, null),
+                versioned(grocery(1L, "FRUITS", 40, null), 1L)));
+        monitor.onGroceryChanged(GroceryChangedEvent.updated(grocery(4L, "DAIRY", 15, 20),
+                versioned(grocery(4L, "DAIRY", 12, 20), 1L)));
+
+        assertEquals(List.of(2L, 1L), ids(monitor.getLowStock()));
+        verify(eventPublisher, times(2)).publishEvent(any(LowStockAlert.class));
+    }
+
+    private static GroceryResponse versioned(GroceryResponse grocery, Long version) {
+        grocery.setVersion(version);
+        return grocery;
+    }
+
+    private static GroceryResponse grocery(Long id, String category, int quantity, Integer reorderThreshold) {
+        return GroceryResponse.builder()
+                .id(id)
+                .name("Item " + id)
+                .category(category)
+                .quantity(quantity)
+                .reorderThreshold(reorderThreshold)
+                .updatedAt(LocalDateTime.of(2024, 5, 1, 10, 0).plusMinutes(id))
+                .build();
+    }
+
+    private static List<Long> ids(List<GroceryResponse> groceries) {
+        return groceries.stream().map(GroceryResponse::getId).toList();
+    }
+}